@@ -0,0 +1,76 @@
+package com.vaadin.componentfactory.benchmarks;
+
+/*
+ * #%L
+ * Vaadin VCF Tooltip for Vaadin 10
+ * %%
+ * Copyright (C) 2020 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.componentfactory.MockUI;
+import com.vaadin.componentfactory.Tooltip;
+import com.vaadin.flow.component.html.Span;
+
+/**
+ * Measures creating tooltips, attaching them to their targets and preparing
+ * the response sent to the client.
+ *
+ * @author Vaadin Ltd
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TooltipAttachBenchmark {
+
+    @Param({ "1000", "10000" })
+    private int tooltipCount;
+
+    @Benchmark
+    public Object createTooltips() {
+        Tooltip[] tooltips = new Tooltip[tooltipCount];
+        for (int i = 0; i < tooltipCount; i++) {
+            tooltips[i] = new Tooltip();
+        }
+        return tooltips;
+    }
+
+    @Benchmark
+    public Object createAndAttachTooltips() {
+        MockUI ui = new MockUI();
+        for (int i = 0; i < tooltipCount; i++) {
+            Span target = new Span("Target " + i);
+            Tooltip tooltip = new Tooltip(target, "Tooltip " + i);
+            ui.add(target, tooltip);
+        }
+        return ui.dumpPendingJavaScriptInvocations();
+    }
+}
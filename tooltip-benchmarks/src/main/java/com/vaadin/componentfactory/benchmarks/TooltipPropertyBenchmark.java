@@ -0,0 +1,106 @@
+package com.vaadin.componentfactory.benchmarks;
+
+/*
+ * #%L
+ * Vaadin VCF Tooltip for Vaadin 10
+ * %%
+ * Copyright (C) 2020 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.componentfactory.Tooltip;
+import com.vaadin.componentfactory.TooltipAlignment;
+import com.vaadin.componentfactory.TooltipPosition;
+import com.vaadin.flow.component.html.H5;
+import com.vaadin.flow.component.html.Paragraph;
+
+/**
+ * Measures the operations done on a single tooltip: changing its position and
+ * alignment, building its content and reading the position and alignment
+ * back.
+ *
+ * @author Vaadin Ltd
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TooltipPropertyBenchmark {
+
+    private static final TooltipPosition[] POSITIONS = TooltipPosition.values();
+    private static final TooltipAlignment[] ALIGNMENTS = TooltipAlignment.values();
+
+    private Tooltip tooltip;
+    private int counter;
+
+    @Setup
+    public void createTooltip() {
+        tooltip = new Tooltip();
+        tooltip.setPosition(TooltipPosition.BOTTOM);
+        tooltip.setAlignment(TooltipAlignment.LEFT);
+    }
+
+    @Benchmark
+    public void setPositionAndAlignment() {
+        counter++;
+        tooltip.setPosition(POSITIONS[counter % POSITIONS.length]);
+        tooltip.setAlignment(ALIGNMENTS[counter % ALIGNMENTS.length]);
+    }
+
+    @Benchmark
+    public Object getPositionAndAlignment() {
+        return new Object[] { tooltip.getPosition(), tooltip.getAlignment() };
+    }
+
+    @Benchmark
+    public Object positionLookup() {
+        counter++;
+        return TooltipPosition.getPosition(POSITIONS[counter % POSITIONS.length].getPositionText());
+    }
+
+    @Benchmark
+    public Object alignmentLookup() {
+        counter++;
+        return TooltipAlignment.getAlignment(ALIGNMENTS[counter % ALIGNMENTS.length].getAlignmentText());
+    }
+
+    @Benchmark
+    public Object buildComponentContent() {
+        tooltip.removeAll();
+        tooltip.add(new H5("Tooltip title"), new Paragraph("Tooltip text"));
+        return tooltip;
+    }
+
+    @Benchmark
+    public Object setTextContent() {
+        tooltip.setText("Tooltip text " + (counter++ & 7));
+        return tooltip;
+    }
+}
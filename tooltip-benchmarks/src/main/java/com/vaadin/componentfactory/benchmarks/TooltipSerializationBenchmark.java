@@ -0,0 +1,114 @@
+package com.vaadin.componentfactory.benchmarks;
+
+/*
+ * #%L
+ * Vaadin VCF Tooltip for Vaadin 10
+ * %%
+ * Copyright (C) 2020 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.componentfactory.MockUI;
+import com.vaadin.componentfactory.Tooltip;
+import com.vaadin.componentfactory.TooltipPosition;
+import com.vaadin.flow.component.html.Span;
+
+/**
+ * Measures writing the changes of a UI with many tooltips to JSON, i.e. the
+ * server side cost of the response sent to the client.
+ *
+ * @author Vaadin Ltd
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TooltipSerializationBenchmark {
+
+    @Benchmark
+    public Object initialChanges(AttachedTooltips state) {
+        return state.ui.collectChanges();
+    }
+
+    @Benchmark
+    public Object positionChanges(SentTooltips state) {
+        for (Tooltip tooltip : state.tooltips) {
+            tooltip.setPosition(TooltipPosition.BOTTOM);
+        }
+        return state.ui.collectChanges();
+    }
+
+    /**
+     * A UI with tooltips attached to targets.
+     */
+    @State(Scope.Benchmark)
+    public abstract static class UIWithTooltips {
+
+        @Param({ "1000", "10000" })
+        private int tooltipCount;
+
+        MockUI ui;
+        Tooltip[] tooltips;
+
+        void attachTooltips() {
+            ui = new MockUI();
+            tooltips = new Tooltip[tooltipCount];
+            for (int i = 0; i < tooltipCount; i++) {
+                Span target = new Span("Target " + i);
+                tooltips[i] = new Tooltip(target, "Tooltip " + i);
+                ui.add(target, tooltips[i]);
+            }
+        }
+    }
+
+    /**
+     * Tooltips none of which has been sent to the client yet.
+     */
+    public static class AttachedTooltips extends UIWithTooltips {
+
+        @Setup(Level.Invocation)
+        public void createUI() {
+            attachTooltips();
+        }
+    }
+
+    /**
+     * Tooltips all of which have already been sent to the client.
+     */
+    public static class SentTooltips extends UIWithTooltips {
+
+        @Setup(Level.Invocation)
+        public void createUI() {
+            attachTooltips();
+            ui.collectChanges();
+        }
+    }
+}
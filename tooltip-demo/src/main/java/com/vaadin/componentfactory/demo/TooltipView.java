@@ -2,6 +2,7 @@ package com.vaadin.componentfactory.demo;
 
 import com.vaadin.componentfactory.Tooltip;
 import com.vaadin.componentfactory.TooltipAlignment;
+import com.vaadin.componentfactory.TooltipBindingMode;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.html.Div;
@@ -154,8 +155,12 @@ public class TooltipView extends DemoView {
                         + " " + alignment.getAlignmentText());
                 Tooltip tooltip = new Tooltip(button, position, alignment);
 
-                tooltip.add(new Paragraph("Position: " + position.getPositionText()));
-                tooltip.add(new Paragraph("Alignment: " + alignment.getAlignmentText()));
+                // Only the tooltips of the buttons scrolled into view are bound
+                // and get their content
+                tooltip.setBindingMode(TooltipBindingMode.VIEWPORT);
+                tooltip.setContentProvider(() -> new Div(
+                        new Paragraph("Position: " + position.getPositionText()),
+                        new Paragraph("Alignment: " + alignment.getAlignmentText())));
                 container.add(button, tooltip);
             }
         }
@@ -0,0 +1,153 @@
+package com.vaadin.componentfactory;
+
+/*
+ * #%L
+ * Vaadin VCF Tooltip for Vaadin 10
+ * %%
+ * Copyright (C) 2020 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.vaadin.flow.component.UI;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Instrumentation emitting JDK Flight Recorder events for the operations of
+ * the tooltips. Enable it with {@link #install()} and record with e.g.
+ * <code>-XX:StartFlightRecording</code>; events that are not enabled in the
+ * recording settings are not created.
+ * <p>
+ * Requires Java 11 or later, so it is in a module of its own, not part of the
+ * tooltip add-on built for Java 8.
+ *
+ * @author Vaadin Ltd
+ */
+public class TooltipFlightRecorder implements TooltipInstrumentation {
+
+    static final String CATEGORY = "Vaadin";
+
+    /**
+     * Sets a new flight recorder instrumentation as the instrumentation of
+     * the tooltips.
+     *
+     * @see Tooltip#setInstrumentation(TooltipInstrumentation)
+     */
+    public static void install() {
+        Tooltip.setInstrumentation(new TooltipFlightRecorder());
+    }
+
+    @Override
+    public void tooltipAttached(UI ui, int liveTooltips) {
+        commitLiveTooltips(ui, liveTooltips);
+    }
+
+    @Override
+    public void tooltipDetached(UI ui, int liveTooltips) {
+        commitLiveTooltips(ui, liveTooltips);
+    }
+
+    private static void commitLiveTooltips(UI ui, int liveTooltips) {
+        LiveTooltipsEvent event = new LiveTooltipsEvent();
+        if (event.shouldCommit()) {
+            event.uiId = ui.getUIId();
+            event.liveTooltips = liveTooltips;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void openedChanged(Tooltip tooltip, boolean opened) {
+        OpenedChangeEvent event = new OpenedChangeEvent();
+        if (event.shouldCommit()) {
+            event.opened = opened;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void batchSent(UI ui, int bindings, int hides, int shows) {
+        BatchEvent event = new BatchEvent();
+        if (event.shouldCommit()) {
+            event.uiId = ui.getUIId();
+            event.bindings = bindings;
+            event.hides = hides;
+            event.shows = shows;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void contentCreated(Tooltip tooltip, long durationNanos, boolean async) {
+        ContentCreatedEvent event = new ContentCreatedEvent();
+        if (event.shouldCommit()) {
+            event.creationTime = durationNanos;
+            event.async = async;
+            event.commit();
+        }
+    }
+
+    @Name("com.vaadin.componentfactory.LiveTooltips")
+    @Label("Live Tooltips")
+    @Description("Number of tooltips attached to a UI")
+    @Category(CATEGORY)
+    static class LiveTooltipsEvent extends Event {
+        @Label("UI Id")
+        int uiId;
+        @Label("Live Tooltips")
+        int liveTooltips;
+    }
+
+    @Name("com.vaadin.componentfactory.TooltipOpenedChange")
+    @Label("Tooltip Opened Change")
+    @Description("Open state of a tooltip synchronized from the client")
+    @Category(CATEGORY)
+    static class OpenedChangeEvent extends Event {
+        @Label("Opened")
+        boolean opened;
+    }
+
+    @Name("com.vaadin.componentfactory.TooltipBatch")
+    @Label("Tooltip Batch")
+    @Description("Targets and open states of the tooltips of a UI sent in one JavaScript invocation")
+    @Category(CATEGORY)
+    static class BatchEvent extends Event {
+        @Label("UI Id")
+        int uiId;
+        @Label("Bindings")
+        int bindings;
+        @Label("Hides")
+        int hides;
+        @Label("Shows")
+        int shows;
+    }
+
+    @Name("com.vaadin.componentfactory.TooltipContentCreated")
+    @Label("Tooltip Content Created")
+    @Description("Content of a tooltip created by a content provider")
+    @Category(CATEGORY)
+    static class ContentCreatedEvent extends Event {
+        @Label("Creation Time")
+        @Timespan
+        long creationTime;
+        @Label("Asynchronous")
+        boolean async;
+    }
+}
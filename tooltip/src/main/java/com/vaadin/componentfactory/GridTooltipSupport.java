@@ -0,0 +1,221 @@
+package com.vaadin.componentfactory;
+
+/*
+ * #%L
+ * Vaadin VCF Tooltip for Vaadin 10
+ * %%
+ * Copyright (C) 2020 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.dom.DomListenerRegistration;
+import com.vaadin.flow.function.ValueProvider;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Shows tooltips for the rows and cells of a {@link Grid} using a single
+ * {@link Tooltip}.
+ * <p>
+ * The content of a tooltip is generated from the item only when one of its
+ * cells is hovered. The item is resolved from the key sent by the client, so
+ * the support works with lazy data providers and with any number of items.
+ * Moving the pointer across the grid sends the hovered cell only once the
+ * pointer has rested on it for the hover delay.
+ *
+ * @param <T> the type of the items of the grid
+ * @author Vaadin Ltd
+ */
+public class GridTooltipSupport<T> implements Serializable {
+
+    /**
+     * Default hover delay in milliseconds.
+     */
+    public static final int DEFAULT_HOVER_DELAY = 200;
+
+    static final String GRID_HOVER_EVENT = "vcf-tooltip-grid-hover";
+
+    private final Grid<T> grid;
+    private final Tooltip tooltip = new Tooltip();
+    // The generators return either a String or a Component
+    private final Map<String, ValueProvider<T, ?>> columnGenerators = new HashMap<>();
+    private ValueProvider<T, ?> rowGenerator;
+    private Registration hoverRegistration;
+    private int hoverDelay = DEFAULT_HOVER_DELAY;
+
+    /**
+     * Creates the tooltip support for the grid.
+     *
+     * @param grid the grid showing the tooltips
+     */
+    public GridTooltipSupport(Grid<T> grid) {
+        this.grid = Objects.requireNonNull(grid);
+        tooltip.setManualMode(true);
+        addHoverListener();
+
+        grid.addAttachListener(event -> init(event.getUI()));
+        grid.addDetachListener(event -> tooltip.getElement().removeFromParent());
+        grid.getUI().ifPresent(this::init);
+    }
+
+    /**
+     * Sets a generator for the text of the tooltip of the rows. It is used for
+     * the cells of the columns without a generator of their own.
+     *
+     * @param tooltipGenerator the generator of the text, returning
+     *                         <code>null</code> for no tooltip
+     */
+    public void setTooltipGenerator(ValueProvider<T, String> tooltipGenerator) {
+        rowGenerator = tooltipGenerator;
+    }
+
+    /**
+     * Sets a generator for the content of the tooltip of the rows. It is used
+     * for the cells of the columns without a generator of their own.
+     *
+     * @param tooltipGenerator the generator of the content, returning
+     *                         <code>null</code> for no tooltip
+     */
+    public void setTooltipComponentGenerator(ValueProvider<T, Component> tooltipGenerator) {
+        rowGenerator = tooltipGenerator;
+    }
+
+    /**
+     * Sets a generator for the text of the tooltip of the cells of a column.
+     *
+     * @param column           the column of the grid
+     * @param tooltipGenerator the generator of the text, returning
+     *                         <code>null</code> for no tooltip
+     */
+    public void setTooltipGenerator(Grid.Column<T> column, ValueProvider<T, String> tooltipGenerator) {
+        setColumnGenerator(column, tooltipGenerator);
+    }
+
+    /**
+     * Sets a generator for the content of the tooltip of the cells of a
+     * column.
+     *
+     * @param column           the column of the grid
+     * @param tooltipGenerator the generator of the content, returning
+     *                         <code>null</code> for no tooltip
+     */
+    public void setTooltipComponentGenerator(Grid.Column<T> column, ValueProvider<T, Component> tooltipGenerator) {
+        setColumnGenerator(column, tooltipGenerator);
+    }
+
+    private void setColumnGenerator(Grid.Column<T> column, ValueProvider<T, ?> tooltipGenerator) {
+        Objects.requireNonNull(column);
+        String columnId = column.getElement().getProperty("_flowId");
+        if (tooltipGenerator == null) {
+            columnGenerators.remove(columnId);
+        } else {
+            columnGenerators.put(columnId, tooltipGenerator);
+        }
+    }
+
+    /**
+     * Sets how long the pointer needs to rest on a cell before the cell is
+     * sent to the server and its tooltip is shown. Only the last hovered cell
+     * is sent, so sweeping the pointer across the grid doesn't cause a
+     * request for each cell. Default is {@value #DEFAULT_HOVER_DELAY}
+     * milliseconds.
+     *
+     * @param hoverDelay the delay in milliseconds, or 0 to send every hovered
+     *                   cell right away
+     */
+    public void setHoverDelay(int hoverDelay) {
+        if (hoverDelay < 0) {
+            throw new IllegalArgumentException("The hover delay cannot be negative");
+        }
+        this.hoverDelay = hoverDelay;
+        hoverRegistration.remove();
+        addHoverListener();
+    }
+
+    /**
+     * Gets how long the pointer needs to rest on a cell before its tooltip is
+     * shown.
+     *
+     * @return the delay in milliseconds
+     */
+    public int getHoverDelay() {
+        return hoverDelay;
+    }
+
+    /**
+     * Gets the tooltip used for showing the content, e.g. for setting its
+     * position or theme.
+     *
+     * @return the tooltip
+     */
+    public Tooltip getTooltip() {
+        return tooltip;
+    }
+
+    private void addHoverListener() {
+        DomListenerRegistration registration = tooltip.getElement()
+                .addEventListener(GRID_HOVER_EVENT, event -> showTooltip(
+                        event.getEventData().getString("event.detail.key"),
+                        event.getEventData().getString("event.detail.column")))
+                .addEventData("event.detail.key")
+                .addEventData("event.detail.column");
+        if (hoverDelay > 0) {
+            // Trailing only, so the cell under the resting pointer is sent
+            registration.debounce(hoverDelay);
+        }
+        hoverRegistration = registration;
+    }
+
+    private void init(UI ui) {
+        if (tooltip.getElement().getParent() != ui.getElement()) {
+            ui.add(tooltip);
+        }
+        grid.getElement().executeJs("window.Vaadin.Flow.vcfTooltipConnector.initGrid(this, $0);",
+                tooltip.getElement());
+    }
+
+    /**
+     * Shows the tooltip of a hovered cell.
+     *
+     * @param key      the key of the item of the cell
+     * @param columnId the id of the column of the cell, or an empty string
+     */
+    void showTooltip(String key, String columnId) {
+        // Items scrolled out of the cache have no key anymore
+        T item = grid.getDataCommunicator().getKeyMapper().get(key);
+        ValueProvider<T, ?> generator = columnGenerators.getOrDefault(columnId, rowGenerator);
+        Object content = item == null || generator == null ? null : generator.apply(item);
+        if (content instanceof Component) {
+            tooltip.removeAll();
+            tooltip.add((Component) content);
+        } else if (content != null && !content.toString().isEmpty()) {
+            tooltip.setText(content.toString());
+        } else {
+            tooltip.removeAll();
+            tooltip.close();
+            return;
+        }
+        tooltip.getElement().executeJs("window.Vaadin.Flow.vcfTooltipConnector.showForGridCell(this, $0, $1);",
+                key, columnId);
+    }
+}
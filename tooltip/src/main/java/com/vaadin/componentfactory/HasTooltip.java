@@ -0,0 +1,58 @@
+package com.vaadin.componentfactory;
+
+/*
+ * #%L
+ * Vaadin VCF Tooltip for Vaadin 10
+ * %%
+ * Copyright (C) 2020 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Component providing the text of its own tooltip, used by
+ * {@link TooltipBinder}.
+ *
+ * @author Vaadin Ltd
+ */
+public interface HasTooltip {
+
+    /**
+     * Gets the text of the tooltip of the component.
+     *
+     * @return the text, or <code>null</code> for taking the text from the
+     *         other sources of the binder
+     */
+    String getTooltipText();
+
+    /**
+     * Gets the position of the tooltip of the component. Default is
+     * {@link TooltipPosition#TOP}.
+     *
+     * @return the position {@link TooltipPosition}
+     */
+    default TooltipPosition getTooltipPosition() {
+        return TooltipPosition.TOP;
+    }
+
+    /**
+     * Gets the alignment of the tooltip of the component. Default is
+     * {@link TooltipAlignment#CENTER}.
+     *
+     * @return the alignment {@link TooltipAlignment}
+     */
+    default TooltipAlignment getTooltipAlignment() {
+        return TooltipAlignment.CENTER;
+    }
+}
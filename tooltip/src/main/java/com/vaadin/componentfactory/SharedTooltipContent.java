@@ -0,0 +1,76 @@
+package com.vaadin.componentfactory;
+
+/*
+ * #%L
+ * Vaadin VCF Tooltip for Vaadin 10
+ * %%
+ * Copyright (C) 2020 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Immutable content of a tooltip that is shared by all the sessions of the
+ * application, either plain text or sanitized HTML. The content is created
+ * with a {@link TooltipContentRegistry} and shown with
+ * {@link Tooltip#setSharedContent(SharedTooltipContent)}.
+ * <p>
+ * The tooltips showing the content refer to the same string instance instead
+ * of building components of their own, so the server keeps one copy of the
+ * content no matter how many sessions show it.
+ *
+ * @author Vaadin Ltd
+ */
+public final class SharedTooltipContent implements Serializable {
+
+    private final String key;
+    private final String text;
+    private final String html;
+
+    SharedTooltipContent(String key, String text, String html) {
+        this.key = Objects.requireNonNull(key);
+        this.text = text;
+        this.html = html;
+    }
+
+    /**
+     * Gets the key of the content in the registry.
+     *
+     * @return the key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the text of the content.
+     *
+     * @return the text, or <code>null</code> if the content is HTML
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Gets the sanitized HTML of the content.
+     *
+     * @return the HTML, or <code>null</code> if the content is plain text
+     */
+    public String getHtml() {
+        return html;
+    }
+}
@@ -22,31 +22,51 @@ package com.vaadin.componentfactory;
 
 
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+import com.vaadin.flow.component.AttachEvent;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.ComponentEvent;
 import com.vaadin.flow.component.ComponentEventListener;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.DomEvent;
 import com.vaadin.flow.component.HasComponents;
 import com.vaadin.flow.component.HasStyle;
+import com.vaadin.flow.component.HasText;
 import com.vaadin.flow.component.HasTheme;
-import com.vaadin.flow.component.Synchronize;
 import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.dependency.CssImport;
 import com.vaadin.flow.component.dependency.JsModule;
 import com.vaadin.flow.component.dependency.NpmPackage;
+import com.vaadin.flow.dom.DomListenerRegistration;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.dom.PropertyChangeEvent;
+import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.function.SerializableSupplier;
 import com.vaadin.flow.internal.nodefeature.ElementData;
 import com.vaadin.flow.shared.Registration;
 
 /**
  * Server-side component for the <code>vcf-tooltip</code> element.
  * Default tooltip's position and alignment are top and center respectively.
+ * <p>
+ * The web component is not part of the bundle loaded on startup. It is loaded
+ * when the first tooltip is attached to a UI, and the operations on tooltips
+ * are held back in the browser until it has been loaded. To load it on
+ * startup instead, add
+ * <code>@JsModule("@vaadin-component-factory/vcf-tooltip/src/vcf-tooltip.js")</code>
+ * to the main layout of the application.
  *
  * @author Vaadin Ltd
  */
 @Tag("vcf-tooltip")
 @NpmPackage(value = "@vaadin-component-factory/vcf-tooltip", version = "1.3.15")
-@JsModule("@vaadin-component-factory/vcf-tooltip/src/vcf-tooltip.js")
-public class Tooltip extends Component implements HasComponents, HasStyle, HasTheme {
+@JsModule("./vcf-tooltip-connector.js")
+@CssImport(value = "./vcf-tooltip-styles.css", themeFor = "vcf-tooltip")
+@CssImport("./vcf-tooltip-global.css")
+public class Tooltip extends Component implements HasComponents, HasStyle, HasTheme, HasText {
 
     /**
      * Click event on the component.
@@ -59,18 +79,80 @@ public class Tooltip extends Component implements HasComponents, HasStyle, HasTh
         }
     }
 
-    private final String ATTACHED_COMPONENT_ID_PROPERTY = "for";
-    private final String POSITION_PROPERTY = "position";
-    private final String ALIGNMENT_PROPERTY = "align";
-    private final String HIDDEN_MSG_PROPERTY = "hidden";
-    private final String MANUAL_PROPERTY = "manual";
-    private final String CLOSE_BUTTON_PROPERTY = "closeButton";
+    /**
+     * Event fired when the target of a tooltip using
+     * {@link TooltipBindingMode#VIEWPORT} has come near the viewport and the
+     * tooltip has been bound to it, e.g. for preparing its content.
+     */
+    @DomEvent("vcf-tooltip-target-visible")
+    public static class TargetVisibleEvent extends ComponentEvent<Tooltip> {
+
+        public TargetVisibleEvent(Tooltip source, boolean fromClient) {
+            super(source, fromClient);
+        }
+    }
+
+    /**
+     * Event fired when the tooltip is opened or closed in the browser.
+     */
+    public static class OpenedChangeEvent extends ComponentEvent<Tooltip> {
+
+        private final boolean opened;
+
+        public OpenedChangeEvent(Tooltip source, boolean fromClient, boolean opened) {
+            super(source, fromClient);
+            this.opened = opened;
+        }
+
+        /**
+         * Checks if the tooltip has been opened.
+         *
+         * @return <code>true</code> if the tooltip is open, <code>false</code>
+         *         if it is closed
+         */
+        public boolean isOpened() {
+            return opened;
+        }
+    }
+
+    private static final String ATTACHED_COMPONENT_ID_PROPERTY = "for";
+    private static final String POSITION_PROPERTY = "position";
+    private static final String ALIGNMENT_PROPERTY = "align";
+    private static final String HIDDEN_MSG_PROPERTY = "hidden";
+    static final String HIDDEN_CHANGED_EVENT = "hidden-changed";
+    private static final String MANUAL_PROPERTY = "manual";
+    private static final String CLOSE_BUTTON_PROPERTY = "closeButton";
+
+    /**
+     * Default time in milliseconds after which content created by a content
+     * provider is detached when using {@link TooltipContentDetachPolicy#ON_IDLE}.
+     */
+    public static final int DEFAULT_CONTENT_IDLE_TIMEOUT = 30000;
+
+    /**
+     * Default text shown while the content of an asynchronous content provider
+     * is loading.
+     */
+    public static final String DEFAULT_ASYNC_CONTENT_PLACEHOLDER = "Loading...";
+
+    private static volatile TooltipInstrumentation instrumentation;
+
+    private TooltipTarget target;
+    private TooltipContentProviders contentProviders;
+    private TooltipTemplate<?> template;
+    private Element templateContainer;
+    private TooltipSyncMode syncMode = TooltipSyncMode.EAGER;
+    private TooltipBindingMode bindingMode = TooltipBindingMode.IMMEDIATE;
+    private int syncDebounceTimeout;
+    private boolean hiddenSynchronized;
+    private DomListenerRegistration hiddenSyncRegistration;
+    private Registration hiddenChangeRegistration;
 
     /**
      * Default constructor.
      */
     public Tooltip() {
-        getElement().getStyle().set("margin", "0px");
+        updateOpenedSynchronization();
     }
 
     /**
@@ -83,6 +165,18 @@ public class Tooltip extends Component implements HasComponents, HasStyle, HasTh
         attachToComponent(component);
     }
 
+    /**
+     * Creates a text tooltip attaching it to the component.
+     *
+     * @param component the tooltip is attached to this component
+     * @param text      the text of the tooltip
+     * @see #setText(String)
+     */
+    public Tooltip(Component component, String text) {
+        this(component);
+        setText(text);
+    }
+
     /**
      * Creates the tooltip attaching it to the component and sets its position.
      *
@@ -109,16 +203,21 @@ public class Tooltip extends Component implements HasComponents, HasStyle, HasTh
 
     /**
      * Assigns the tooltip to a specific component.
+     * <p>
+     * The tooltip follows the component when it is detached and attached
+     * again, and doesn't keep a removed component from being garbage
+     * collected.
      *
      * @param component the tooltip is attached to this component
      */
     public void attachToComponent(Component component) {
         Objects.requireNonNull(component);
-
-        getElement().getNode().runWhenAttached(ui ->
-                ui.getPage().executeJs("$0.targetElement = $1;",
-                        getElement(), component.getElement()
-                ));
+        if (target != null) {
+            target.release();
+        }
+        // The targets of all the tooltips of the UI are sent in one call
+        target = new TooltipTarget(this, component);
+        getUI().ifPresent(target::onTooltipAttach);
     }
 
     /**
@@ -128,22 +227,80 @@ public class Tooltip extends Component implements HasComponents, HasStyle, HasTh
      */
     public void attachToComponent(String id) {
         Objects.requireNonNull(id);
+        if (target != null) {
+            target.release();
+            target = null;
+        }
         getElement().setProperty(ATTACHED_COMPONENT_ID_PROPERTY, id);
     }
 
+    /**
+     * Sets when the tooltip is bound to the component it is attached to in
+     * the browser. Default is {@link TooltipBindingMode#IMMEDIATE}.
+     * <p>
+     * With {@link TooltipBindingMode#VIEWPORT}, tooltips of targets far
+     * outside of the viewport, e.g. further down a long scrolling page, are
+     * bound only when the targets come near the viewport. Opening the tooltip
+     * binds it right away. The content of a
+     * {@link #setContentProvider(SerializableSupplier) content provider} is
+     * created when the target comes near the viewport, so only the content of
+     * the tooltips of the visible part of the page is sent. Content added to
+     * the tooltip directly is sent right away, as in the immediate mode.
+     *
+     * @param bindingMode the binding mode {@link TooltipBindingMode}
+     * @see #addTargetVisibleListener(ComponentEventListener)
+     */
+    public void setBindingMode(TooltipBindingMode bindingMode) {
+        this.bindingMode = Objects.requireNonNull(bindingMode);
+        updateContentListeners();
+    }
+
+    /**
+     * Gets when the tooltip is bound to the component it is attached to in
+     * the browser.
+     *
+     * @return the binding mode {@link TooltipBindingMode}
+     */
+    public TooltipBindingMode getBindingMode() {
+        return bindingMode;
+    }
+
+    /**
+     * Adds a listener notified when the tooltip has been bound to its target
+     * coming near the viewport, when using
+     * {@link TooltipBindingMode#VIEWPORT}.
+     *
+     * @param listener the listener
+     * @return a {@link Registration} for removing the event listener
+     */
+    public Registration addTargetVisibleListener(ComponentEventListener<TargetVisibleEvent> listener) {
+        return addListener(TargetVisibleEvent.class, listener);
+    }
+
     /**
      * Opens the content of the tooltip.
      */
     public void open() {
-        getElement().executeJs("this.show();");
+        setOpened(true);
     }
     
+    /**
+     * Queues showing or hiding the tooltip. Only the last state requested
+     * before the response is sent to the client, together with the states of
+     * all the other tooltips of the UI.
+     */
+    private void setOpened(boolean opened) {
+        getElement().getNode().runWhenAttached(ui -> TooltipBatch.get(ui).setOpened(this, opened));
+    }
+
     /**
      * Checks if the tooltip is open.
+     * <p>
+     * The value is updated from the client depending on the
+     * {@link #setSyncMode(TooltipSyncMode) synchronization mode}.
      * 
      * @return boolean value
      */
-    @Synchronize(property = HIDDEN_MSG_PROPERTY, value = "open-changed")
     public boolean isOpen() {
         return !getElement().getProperty(HIDDEN_MSG_PROPERTY, false);
     }
@@ -152,19 +309,566 @@ public class Tooltip extends Component implements HasComponents, HasStyle, HasTh
      * Hides the content of the tooltip.
      */
     public void close() {
-        getElement().executeJs("this.hide();");
+        setOpened(false);
     }
     
     /**
      * Checks if the tooltip is closed.
+     * <p>
+     * The value is updated from the client depending on the
+     * {@link #setSyncMode(TooltipSyncMode) synchronization mode}.
      * 
      * @return boolean value
      */
-    @Synchronize(property = HIDDEN_MSG_PROPERTY, value = "hidden-changed")
     public boolean isClosed() {
         return getElement().getProperty(HIDDEN_MSG_PROPERTY, false);
     }
 
+    /**
+     * Adds a listener for {@code OpenedChangeEvent}, fired when the tooltip
+     * is opened or closed in the browser.
+     * <p>
+     * The listener is not called when the {@link #setSyncMode(TooltipSyncMode)
+     * synchronization mode} is {@link TooltipSyncMode#NONE}.
+     *
+     * @param listener the listener
+     * @return a {@link Registration} for removing the event listener
+     */
+    public Registration addOpenedChangeListener(ComponentEventListener<OpenedChangeEvent> listener) {
+        Registration registration = addListener(OpenedChangeEvent.class, listener);
+        updateOpenedSynchronization();
+        return () -> {
+            registration.remove();
+            updateOpenedSynchronization();
+        };
+    }
+
+    /**
+     * Sets when the open state of the tooltip is synchronized from the
+     * client. Default is {@link TooltipSyncMode#EAGER}.
+     * <p>
+     * With {@link TooltipSyncMode#ON_DEMAND}, tooltips without opened change
+     * listeners or content providers don't send anything to the server when
+     * they are opened or closed, and {@link #isOpen()} is not updated for
+     * them.
+     *
+     * @param syncMode the synchronization mode {@link TooltipSyncMode}
+     */
+    public void setSyncMode(TooltipSyncMode syncMode) {
+        this.syncMode = Objects.requireNonNull(syncMode);
+        updateOpenedSynchronization();
+        updateContentListeners();
+    }
+
+    /**
+     * Gets when the open state of the tooltip is synchronized from the
+     * client.
+     *
+     * @return the synchronization mode {@link TooltipSyncMode}
+     */
+    public TooltipSyncMode getSyncMode() {
+        return syncMode;
+    }
+
+    /**
+     * Sets a timeout for synchronizing the open state of the tooltip. The
+     * state is then sent only once it has not changed for the given time, so
+     * sweeping the pointer over many targets doesn't cause a request for each
+     * of them. Default is 0, which sends every change right away.
+     * <p>
+     * Opened change listeners and content providers are notified only when
+     * the state is sent.
+     *
+     * @param syncDebounceTimeout the timeout in milliseconds
+     */
+    public void setSyncDebounceTimeout(int syncDebounceTimeout) {
+        if (syncDebounceTimeout < 0) {
+            throw new IllegalArgumentException("The debounce timeout cannot be negative");
+        }
+        this.syncDebounceTimeout = syncDebounceTimeout;
+        if (hiddenSynchronized) {
+            setHiddenSynchronized(false);
+            setHiddenSynchronized(true);
+        }
+    }
+
+    /**
+     * Gets the timeout for synchronizing the open state of the tooltip.
+     *
+     * @return the timeout in milliseconds
+     */
+    public int getSyncDebounceTimeout() {
+        return syncDebounceTimeout;
+    }
+
+    /**
+     * Sets the text of the tooltip, replacing all of its content.
+     * <p>
+     * The text is kept in a single text node instead of a child component,
+     * which makes text tooltips considerably lighter both on the server and in
+     * the browser. Changing the text of a text tooltip updates the node in
+     * place.
+     *
+     * @param text the text of the tooltip, or <code>null</code> to remove the
+     *             content
+     */
+    @Override
+    public void setText(String text) {
+        getElement().setText(text);
+    }
+
+    /**
+     * Sets content shared by all the sessions of the application as the
+     * content of the tooltip, replacing all of its content.
+     * <p>
+     * The tooltip refers to the text or HTML of the shared content instead of
+     * copying it into components of its own, so a static help text shown in
+     * every session is kept in memory only once.
+     *
+     * @param content the shared content
+     * @see TooltipContentRegistry
+     */
+    public void setSharedContent(SharedTooltipContent content) {
+        Objects.requireNonNull(content);
+        if (content.getHtml() == null) {
+            getElement().setText(content.getText());
+        } else {
+            getElement().removeAllChildren();
+            getElement().appendChild(new Element("div").setProperty("innerHTML", content.getHtml()));
+        }
+    }
+
+    /**
+     * Sets the content of the tooltip rendered in the browser from the
+     * template and the model created from the item, replacing all of its
+     * content.
+     * <p>
+     * Only the values of the properties of the template are kept on the
+     * server and sent to the browser with the tooltip, which makes data heavy
+     * tooltips much lighter than content built from components.
+     *
+     * @param template the template of the content
+     * @param item     the item rendered by the template
+     * @param <T>      the type of the item
+     */
+    public <T> void setTemplateContent(TooltipTemplate<T> template, T item) {
+        Objects.requireNonNull(template);
+        templateContainer = new Element("div");
+        templateContainer.setPropertyJson("model", template.createModel(item));
+        this.template = template;
+        getElement().removeAllChildren();
+        getElement().appendChild(templateContainer);
+        getUI().ifPresent(this::renderTemplate);
+    }
+
+    private void renderTemplate(UI ui) {
+        // The content may have been replaced meanwhile, e.g. by setText
+        if (templateContainer != null && getElement().equals(templateContainer.getParent())) {
+            TooltipBatch.get(ui).renderTemplate(templateContainer, template);
+        } else {
+            templateContainer = null;
+            template = null;
+        }
+    }
+
+    /**
+     * Sets a provider for the content of the tooltip.
+     * <p>
+     * The content is not created when calling this method. The provider is
+     * called and its component added to the tooltip only when the tooltip is
+     * opened in the browser for the first time, so tooltips that are never
+     * shown don't cost any state on the server or on the client. Depending on
+     * the {@link #setContentDetachPolicy(TooltipContentDetachPolicy) detach
+     * policy}, the content is removed again afterwards and recreated on the
+     * next opening.
+     * <p>
+     * Components added with {@link #add(Component...)} are not affected by the
+     * provider.
+     *
+     * @param contentProvider the provider of the content, or <code>null</code>
+     *                        to remove the provider and its content
+     */
+    public void setContentProvider(SerializableSupplier<Component> contentProvider) {
+        if (contentProvider != null || contentProviders != null) {
+            getContentProviders().removeContent();
+            getContentProviders().asyncContentProvider = null;
+            getContentProviders().contentProvider = contentProvider;
+        }
+        updateContentProviderListeners();
+    }
+
+    /**
+     * Sets a provider for the content of the tooltip using a cached value.
+     * <p>
+     * When the content is needed, the value of the key is taken from the cache
+     * or computed with the loader, and the renderer creates the content from
+     * it. Tooltips sharing the same cache and key, e.g. after reloading a
+     * view, don't compute the value again.
+     *
+     * @param cache    the cache of the values
+     * @param key      the key of the value in the cache
+     * @param loader   the loader computing the value when it is not cached
+     * @param renderer the renderer creating the content from the value
+     * @param <V>      the type of the value
+     * @see #setContentProvider(SerializableSupplier)
+     */
+    public <V> void setContentProvider(TooltipContentCache cache, Object key,
+                                       SerializableSupplier<V> loader,
+                                       SerializableFunction<V, ? extends Component> renderer) {
+        Objects.requireNonNull(cache);
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(loader);
+        Objects.requireNonNull(renderer);
+        setContentProvider(() -> renderer.apply(cache.get(key, loader)));
+    }
+
+    /**
+     * Gets the provider for the content of the tooltip.
+     *
+     * @return the content provider, or <code>null</code> if none is set
+     */
+    public SerializableSupplier<Component> getContentProvider() {
+        return contentProviders == null ? null : contentProviders.contentProvider;
+    }
+
+    /**
+     * Sets a provider loading the content of the tooltip asynchronously.
+     * <p>
+     * Like with {@link #setContentProvider(SerializableSupplier)}, nothing is
+     * loaded until the tooltip is opened in the browser. When it is opened,
+     * the provider is called with the {@link #setAsyncContentExecutor(Executor)
+     * executor} for loading the content, and a placeholder text is shown
+     * until the returned future completes. The content is then added through
+     * {@link UI#access(com.vaadin.flow.server.Command)}, which requires server
+     * push to be enabled for showing it without waiting for the next request.
+     * Closing the tooltip cancels a load that has not completed yet: its
+     * result is ignored, but cancelling a {@link CompletableFuture} doesn't
+     * interrupt the thread running it, so a load that has already started
+     * runs to its end.
+     * <p>
+     * The provider should return quickly, leaving the slow work to the
+     * executor, e.g.
+     * <code>executor -&gt; CompletableFuture.supplyAsync(() -&gt; new Span(service.load()), executor)</code>.
+     *
+     * @param asyncContentProvider the provider of the content, or
+     *                             <code>null</code> to remove the provider
+     *                             and its content
+     */
+    public void setAsyncContentProvider(
+            SerializableFunction<Executor, CompletableFuture<? extends Component>> asyncContentProvider) {
+        if (asyncContentProvider != null || contentProviders != null) {
+            getContentProviders().removeContent();
+            getContentProviders().contentProvider = null;
+            getContentProviders().asyncContentProvider = asyncContentProvider;
+        }
+        updateContentProviderListeners();
+    }
+
+    /**
+     * Gets the provider loading the content of the tooltip asynchronously.
+     *
+     * @return the asynchronous content provider, or <code>null</code> if none
+     *         is set
+     */
+    public SerializableFunction<Executor, CompletableFuture<? extends Component>> getAsyncContentProvider() {
+        return contentProviders == null ? null : contentProviders.asyncContentProvider;
+    }
+
+    /**
+     * Sets the executor passed to the asynchronous content provider. By
+     * default, a pool of daemon threads shared by all the tooltips is used,
+     * having as many threads as there are processors, but at least two. Loads
+     * exceeding that wait in a queue, so an application making many slow
+     * backend calls should set an executor sized for them.
+     * <p>
+     * The executor is not serialized with the tooltip, the default executor is
+     * used after deserialization.
+     *
+     * @param asyncContentExecutor the executor, or <code>null</code> for the
+     *                             default executor
+     */
+    public void setAsyncContentExecutor(Executor asyncContentExecutor) {
+        getContentProviders().asyncContentExecutor = asyncContentExecutor;
+    }
+
+    /**
+     * Gets the executor passed to the asynchronous content provider.
+     *
+     * @return the executor
+     */
+    public Executor getAsyncContentExecutor() {
+        return getContentProviders().getAsyncContentExecutor();
+    }
+
+    /**
+     * Sets the text shown while the content of the asynchronous content
+     * provider is loading. Default is {@value #DEFAULT_ASYNC_CONTENT_PLACEHOLDER}.
+     *
+     * @param asyncContentPlaceholder the text, or <code>null</code> for no
+     *                                placeholder
+     */
+    public void setAsyncContentPlaceholder(String asyncContentPlaceholder) {
+        getContentProviders().asyncContentPlaceholder = asyncContentPlaceholder;
+    }
+
+    /**
+     * Gets the text shown while the content of the asynchronous content
+     * provider is loading.
+     *
+     * @return the text, or <code>null</code> if there is no placeholder
+     */
+    public String getAsyncContentPlaceholder() {
+        return contentProviders == null ? DEFAULT_ASYNC_CONTENT_PLACEHOLDER
+                : contentProviders.asyncContentPlaceholder;
+    }
+
+    /**
+     * Sets when the content created by the content provider is detached from
+     * the tooltip. Default is {@link TooltipContentDetachPolicy#NEVER}.
+     *
+     * @param contentDetachPolicy the detach policy {@link TooltipContentDetachPolicy}
+     */
+    public void setContentDetachPolicy(TooltipContentDetachPolicy contentDetachPolicy) {
+        getContentProviders().contentDetachPolicy = Objects.requireNonNull(contentDetachPolicy);
+        updateContentListeners();
+    }
+
+    /**
+     * Gets when the content created by the content provider is detached from
+     * the tooltip.
+     *
+     * @return the detach policy {@link TooltipContentDetachPolicy}
+     */
+    public TooltipContentDetachPolicy getContentDetachPolicy() {
+        return contentProviders == null ? TooltipContentDetachPolicy.NEVER
+                : contentProviders.contentDetachPolicy;
+    }
+
+    /**
+     * Sets the time the tooltip needs to stay closed before the content created
+     * by the content provider is detached when using
+     * {@link TooltipContentDetachPolicy#ON_IDLE}. Default is
+     * {@value #DEFAULT_CONTENT_IDLE_TIMEOUT} milliseconds.
+     *
+     * @param contentIdleTimeout the timeout in milliseconds
+     */
+    public void setContentIdleTimeout(int contentIdleTimeout) {
+        if (contentIdleTimeout < 0) {
+            throw new IllegalArgumentException("The idle timeout cannot be negative");
+        }
+        getContentProviders().contentIdleTimeout = contentIdleTimeout;
+        updateContentListeners();
+    }
+
+    /**
+     * Gets the time the tooltip needs to stay closed before the content created
+     * by the content provider is detached.
+     *
+     * @return the timeout in milliseconds
+     */
+    public int getContentIdleTimeout() {
+        return contentProviders == null ? DEFAULT_CONTENT_IDLE_TIMEOUT
+                : contentProviders.contentIdleTimeout;
+    }
+
+    /**
+     * Sets how long the pointer or focus needs to stay on the target of the
+     * tooltip before the content provider is asked for the content, while the
+     * tooltip is still closed. Using a delay shorter than the one of the
+     * tooltip, the content is often ready when the tooltip opens instead of
+     * arriving a round trip later, whereas moving quickly across many targets
+     * doesn't send anything to the server. Default is 0, which creates the
+     * content only when the tooltip is opened.
+     * <p>
+     * The delay has no effect without a content provider or with
+     * {@link TooltipSyncMode#NONE}.
+     *
+     * @param hoverIntentDelay the delay in milliseconds, or 0 to disable
+     *                         creating the content in advance
+     */
+    public void setHoverIntentDelay(int hoverIntentDelay) {
+        if (hoverIntentDelay < 0) {
+            throw new IllegalArgumentException("The hover intent delay cannot be negative");
+        }
+        getContentProviders().hoverIntentDelay = hoverIntentDelay;
+        updateContentListeners();
+    }
+
+    /**
+     * Gets how long the pointer or focus needs to stay on the target of the
+     * tooltip before the content is created in advance.
+     *
+     * @return the delay in milliseconds, 0 if the content is created only
+     *         when the tooltip is opened
+     */
+    public int getHoverIntentDelay() {
+        return contentProviders == null ? 0 : contentProviders.hoverIntentDelay;
+    }
+
+    /**
+     * Sets the instrumentation notified of the operations of all the tooltips,
+     * e.g. for publishing them as metrics. When no instrumentation is set, the
+     * tooltips don't report anything. The <code>tooltip-jfr</code> module has
+     * an instrumentation emitting JDK Flight Recorder events.
+     *
+     * <p>
+     * The instrumentation should be set on startup, before any tooltip is
+     * created: the open state changes of a tooltip are reported only if the
+     * tooltip was created, or its synchronization settings were last changed,
+     * while instrumentation was set. The other operations are reported for all
+     * the tooltips. A tooltip created while instrumentation was set stops
+     * listening to its open state on its first change after instrumentation
+     * has been removed.
+     *
+     * @param instrumentation the instrumentation, or <code>null</code> to
+     *                        disable instrumentation
+     */
+    public static void setInstrumentation(TooltipInstrumentation instrumentation) {
+        Tooltip.instrumentation = instrumentation;
+    }
+
+    /**
+     * Gets the instrumentation notified of the operations of all the tooltips.
+     *
+     * @return the instrumentation, or <code>null</code> if none is set
+     */
+    public static TooltipInstrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        TooltipBatch.get(attachEvent.getUI()).requestLoad();
+        if (target != null) {
+            target.onTooltipAttach(attachEvent.getUI());
+        }
+        // The content is rendered again whenever the element is created anew
+        // in the browser
+        if (templateContainer != null) {
+            renderTemplate(attachEvent.getUI());
+        }
+        // Counted also without instrumentation, so the count is right when it
+        // is set later on
+        int liveTooltips = TooltipBatch.get(attachEvent.getUI()).updateLiveTooltips(1);
+        TooltipInstrumentation current = instrumentation;
+        if (current != null) {
+            current.tooltipAttached(attachEvent.getUI(), liveTooltips);
+        }
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        super.onDetach(detachEvent);
+        if (target != null) {
+            target.onTooltipDetach(detachEvent.getUI());
+        }
+        if (contentProviders != null) {
+            contentProviders.cancelAsyncContent();
+        }
+        int liveTooltips = TooltipBatch.get(detachEvent.getUI()).updateLiveTooltips(-1);
+        TooltipInstrumentation current = instrumentation;
+        if (current != null) {
+            current.tooltipDetached(detachEvent.getUI(), liveTooltips);
+        }
+    }
+
+    private TooltipContentProviders getContentProviders() {
+        if (contentProviders == null) {
+            contentProviders = new TooltipContentProviders(this);
+        }
+        return contentProviders;
+    }
+
+    private void updateContentProviderListeners() {
+        updateOpenedSynchronization();
+        if (contentProviders == null) {
+            return;
+        }
+        if (Boolean.FALSE.equals(getElement().getPropertyRaw(HIDDEN_MSG_PROPERTY))) {
+            contentProviders.createContent();
+        }
+        updateContentListeners();
+    }
+
+    private void updateContentListeners() {
+        if (contentProviders != null) {
+            contentProviders.updateContentIdleListener(syncMode != TooltipSyncMode.NONE);
+            contentProviders.updateHoverIntentListener(syncMode != TooltipSyncMode.NONE);
+            contentProviders.updateTargetVisibleListener();
+        }
+    }
+
+    private void updateOpenedSynchronization() {
+        boolean listening = syncMode != TooltipSyncMode.NONE
+                && (contentProviders != null && contentProviders.hasContentProvider()
+                        || hasListener(OpenedChangeEvent.class));
+        boolean synchronizing = syncMode == TooltipSyncMode.EAGER || listening;
+
+        if (synchronizing != hiddenSynchronized) {
+            setHiddenSynchronized(synchronizing);
+        }
+
+        // The instrumentation is notified of the changes that are synchronized
+        // anyway, it doesn't enable synchronization by itself. Listening to
+        // every tooltip just in case instrumentation is set later on would
+        // add a listener to every tooltip
+        boolean notifying = listening || synchronizing && instrumentation != null;
+        if (notifying && hiddenChangeRegistration == null) {
+            hiddenChangeRegistration = getElement().addPropertyChangeListener(
+                    HIDDEN_MSG_PROPERTY, this::onHiddenChanged);
+        } else if (!notifying && hiddenChangeRegistration != null) {
+            hiddenChangeRegistration.remove();
+            hiddenChangeRegistration = null;
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private void setHiddenSynchronized(boolean synchronize) {
+        if (hiddenSyncRegistration != null) {
+            hiddenSyncRegistration.remove();
+            hiddenSyncRegistration = null;
+        } else if (hiddenSynchronized) {
+            getElement().removeSynchronizedProperty(HIDDEN_MSG_PROPERTY);
+            getElement().removeSynchronizedPropertyEvent(HIDDEN_CHANGED_EVENT);
+        }
+        hiddenSynchronized = synchronize;
+        if (!synchronize) {
+            return;
+        }
+        if (syncDebounceTimeout > 0) {
+            hiddenSyncRegistration = getElement().addPropertyChangeListener(
+                    HIDDEN_MSG_PROPERTY, HIDDEN_CHANGED_EVENT, event -> {
+                    });
+            hiddenSyncRegistration.debounce(syncDebounceTimeout);
+        } else {
+            // A plain synchronized property takes a fraction of the memory of
+            // a DOM listener registration, which matters as it is the default
+            // for every tooltip
+            getElement().synchronizeProperty(HIDDEN_MSG_PROPERTY, HIDDEN_CHANGED_EVENT);
+        }
+    }
+
+    private void onHiddenChanged(PropertyChangeEvent event) {
+        boolean opened = Boolean.FALSE.equals(event.getValue());
+        if (contentProviders != null) {
+            if (opened) {
+                contentProviders.createContent();
+            } else {
+                contentProviders.onClose();
+            }
+        }
+        TooltipInstrumentation current = instrumentation;
+        if (current != null) {
+            current.openedChanged(this, opened);
+        } else {
+            // Removes the listener added only for instrumentation that has
+            // been removed since
+            updateOpenedSynchronization();
+        }
+        fireEvent(new OpenedChangeEvent(this, event.isUserOriginated(), opened));
+    }
+
     /**
      * Handle component enable state when the enabled state changes.
      * <p>
@@ -178,7 +882,7 @@ public class Tooltip extends Component implements HasComponents, HasStyle, HasTh
         // If the node has feature ElementData, then we know that the state
         // provider accepts attributes
         if (getElement().getNode().hasFeature(ElementData.class)) {
-            getElement().callJsFunction("hide"); // needed to close tooltip
+            setOpened(false); // needed to close tooltip
             getElement().setAttribute(MANUAL_PROPERTY, !enabled);
         }
     }
@@ -326,4 +1030,4 @@ public class Tooltip extends Component implements HasComponents, HasStyle, HasTh
     private String getAlignmentText() {
         return getElement().getProperty(ALIGNMENT_PROPERTY);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,302 @@
+package com.vaadin.componentfactory;
+
+/*
+ * #%L
+ * Vaadin VCF Tooltip for Vaadin 10
+ * %%
+ * Copyright (C) 2020 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+
+/**
+ * Collects the client side operations of the tooltips of a UI and sends them
+ * together before the response to the client, in one JavaScript invocation
+ * for the targets and open states and one for the rendered templates. Loading
+ * the web component is requested along with the first of them.
+ *
+ * @author Vaadin Ltd
+ */
+final class TooltipBatch implements Serializable {
+
+    private final UI ui;
+    private final Map<Tooltip, Component> bindings = new LinkedHashMap<>();
+    private final Map<Tooltip, Boolean> openedStates = new LinkedHashMap<>();
+    private final Map<Element, TooltipTemplate<?>> templateRenders = new LinkedHashMap<>();
+    private final Set<String> definedTemplates = new HashSet<>();
+    private final Set<Component> releasedTargets = new LinkedHashSet<>();
+    private boolean flushScheduled;
+    private boolean loadRequested;
+    private boolean loadPending;
+    private int liveTooltips;
+
+    private TooltipBatch(UI ui) {
+        this.ui = ui;
+    }
+
+    /**
+     * Gets the batch of the UI, creating it if needed.
+     *
+     * @param ui the UI
+     * @return the batch of the UI
+     */
+    static TooltipBatch get(UI ui) {
+        TooltipBatch batch = ComponentUtil.getData(ui, TooltipBatch.class);
+        if (batch == null) {
+            batch = new TooltipBatch(ui);
+            ComponentUtil.setData(ui, TooltipBatch.class, batch);
+        }
+        return batch;
+    }
+
+    /**
+     * Queues setting the target element of the tooltip. Only the last target
+     * queued for a tooltip is sent.
+     *
+     * @param tooltip the tooltip
+     * @param target  the target component, or <code>null</code> to release
+     *                the target element in the browser
+     */
+    void bind(Tooltip tooltip, Component target) {
+        bindings.put(tooltip, target);
+        scheduleFlush();
+    }
+
+    /**
+     * Queues releasing the detached tooltips bound to the target in the
+     * browser, for a target that stays attached when its tooltip is detached.
+     *
+     * @param target the target component
+     */
+    void releaseTarget(Component target) {
+        releasedTargets.add(target);
+        scheduleFlush();
+    }
+
+    /**
+     * Queues showing or hiding the tooltip. Only the last state queued for a
+     * tooltip is sent.
+     *
+     * @param tooltip the tooltip
+     * @param opened  <code>true</code> to show the tooltip, <code>false</code>
+     *                to hide it
+     */
+    void setOpened(Tooltip tooltip, boolean opened) {
+        openedStates.put(tooltip, opened);
+        scheduleFlush();
+    }
+
+    /**
+     * Queues rendering a template into a container element. The markup of the
+     * template is sent along if it has not been sent to the UI before.
+     *
+     * @param container the container element, with the model in its
+     *                  <code>model</code> property
+     * @param template  the template
+     */
+    void renderTemplate(Element container, TooltipTemplate<?> template) {
+        templateRenders.put(container, template);
+        scheduleFlush();
+    }
+
+    /**
+     * Queues loading the web component in the browser, unless it has already
+     * been requested for the UI.
+     */
+    void requestLoad() {
+        if (!loadRequested) {
+            loadRequested = true;
+            loadPending = true;
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Updates the number of tooltips attached to the UI.
+     *
+     * @param delta the change of the number
+     * @return the number of tooltips attached to the UI
+     */
+    int updateLiveTooltips(int delta) {
+        liveTooltips += delta;
+        return liveTooltips;
+    }
+
+    private void flush() {
+        flushTemplateRenders();
+        flushOperations();
+        flushReleasedTargets();
+        if (loadPending) {
+            ui.getPage().executeJs(takeLoadExpression());
+        }
+    }
+
+    private void flushOperations() {
+
+        List<Serializable> bindingParameters = new ArrayList<>();
+        List<Serializable> hideParameters = new ArrayList<>();
+        List<Serializable> showParameters = new ArrayList<>();
+        List<Serializable> deferredParameters = new ArrayList<>();
+        bindings.forEach((tooltip, target) -> {
+            if (tooltip.getElement().getNode().isAttached()) {
+                boolean targetAttached = target != null && target.getElement().getNode().isAttached();
+                List<Serializable> parameters = targetAttached
+                        && tooltip.getBindingMode() == TooltipBindingMode.VIEWPORT
+                        ? deferredParameters : bindingParameters;
+                parameters.add(tooltip.getElement());
+                parameters.add(targetAttached ? target.getElement() : null);
+            }
+        });
+        openedStates.forEach((tooltip, opened) -> {
+            if (tooltip.getElement().getNode().isAttached()) {
+                (opened ? showParameters : hideParameters).add(tooltip.getElement());
+            }
+        });
+        bindings.clear();
+        openedStates.clear();
+
+        int bindingCount = bindingParameters.size();
+        int hideCount = hideParameters.size();
+        int showCount = showParameters.size();
+        int deferredCount = deferredParameters.size();
+        if (bindingCount + hideCount + showCount + deferredCount == 0) {
+            return;
+        }
+        List<Serializable> parameters = new ArrayList<>(bindingParameters);
+        parameters.addAll(hideParameters);
+        parameters.addAll(showParameters);
+        parameters.addAll(deferredParameters);
+        // Targets are set before showing, so a tooltip opened right after
+        // being attached to a component is positioned correctly. Targets
+        // bound when visible are left out unless there are any
+        ui.getPage().executeJs(takeLoadExpression() + "window.Vaadin.Flow.vcfTooltipConnector.update("
+                        + arrayOf(0, bindingCount) + ","
+                        + arrayOf(bindingCount, hideCount) + ","
+                        + arrayOf(bindingCount + hideCount, showCount)
+                        + (deferredCount == 0 ? ""
+                                : "," + arrayOf(bindingCount + hideCount + showCount, deferredCount))
+                        + ");",
+                parameters.toArray(new Serializable[0]));
+
+        TooltipInstrumentation instrumentation = Tooltip.getInstrumentation();
+        if (instrumentation != null) {
+            instrumentation.batchSent(ui, (bindingCount + deferredCount) / 2, hideCount, showCount);
+        }
+    }
+
+    private void flushReleasedTargets() {
+        List<Serializable> targets = new ArrayList<>();
+        releasedTargets.forEach(target -> {
+            if (target.getElement().getNode().isAttached()) {
+                targets.add(target.getElement());
+            }
+        });
+        releasedTargets.clear();
+        if (!targets.isEmpty()) {
+            ui.getPage().executeJs("window.Vaadin.Flow.vcfTooltipConnector.releaseTargets("
+                    + arrayOf(0, targets.size()) + ");", targets.toArray(new Serializable[0]));
+        }
+    }
+
+    private void flushTemplateRenders() {
+        List<Serializable> definitionParameters = new ArrayList<>();
+        List<Serializable> renderParameters = new ArrayList<>();
+        JsonArray templateIds = Json.createArray();
+        templateRenders.forEach((container, template) -> {
+            if (!container.getNode().isAttached()) {
+                return;
+            }
+            if (definedTemplates.add(template.getId())) {
+                definitionParameters.add(template.getId());
+                definitionParameters.add(template.getHtml());
+            }
+            templateIds.set(templateIds.length(), template.getId());
+            renderParameters.add(container);
+        });
+        templateRenders.clear();
+        if (renderParameters.isEmpty()) {
+            return;
+        }
+
+        int definitionCount = definitionParameters.size();
+        List<Serializable> parameters = new ArrayList<>(definitionParameters);
+        parameters.add(templateIds);
+        parameters.addAll(renderParameters);
+        ui.getPage().executeJs(takeLoadExpression() + "window.Vaadin.Flow.vcfTooltipConnector.renderTemplates("
+                        + arrayOf(0, definitionCount) + ",$" + definitionCount + ","
+                        + arrayOf(definitionCount + 1, renderParameters.size()) + ");",
+                parameters.toArray(new Serializable[0]));
+    }
+
+    /**
+     * Gets the expression loading the web component if loading it is pending,
+     * to be prepended to the next invocation.
+     *
+     * @return the expression, or an empty string
+     */
+    private String takeLoadExpression() {
+        if (!loadPending) {
+            return "";
+        }
+        loadPending = false;
+        return "window.Vaadin.Flow.vcfTooltipConnector.load();";
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            ui.beforeClientResponse(ui, context -> {
+                flushScheduled = false;
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Creates a JavaScript array expression of the parameters
+     * <code>$first</code> to <code>$(first + count - 1)</code>.
+     *
+     * @param first the index of the first parameter
+     * @param count the number of parameters
+     * @return the array expression
+     */
+    static String arrayOf(int first, int count) {
+        StringBuilder array = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                array.append(',');
+            }
+            array.append('$').append(first + i);
+        }
+        return array.append(']').toString();
+    }
+}
@@ -0,0 +1,183 @@
+package com.vaadin.componentfactory;
+
+/*
+ * #%L
+ * Vaadin VCF Tooltip for Vaadin 10
+ * %%
+ * Copyright (C) 2020 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ResourceBundle;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Binds text tooltips to all the components of a component tree in one pass.
+ * <p>
+ * The text of a component is taken, in this order, from the component itself
+ * if it implements {@link HasTooltip} and returns a text, from the texts set
+ * with
+ * {@link #withTexts(Map)} by the id of the component, and from the resource
+ * bundle set with {@link #withResourceBundle(ResourceBundle, String)}.
+ * <p>
+ * The tooltips are shown through the {@link TooltipManager} of the UI, so no
+ * tooltip needs to be added to the layouts, and all the components bound
+ * during a request are registered in the browser with a single JavaScript
+ * invocation.
+ *
+ * <pre>
+ * new TooltipBinder()
+ *         .withResourceBundle(ResourceBundle.getBundle("tooltips"), "form.")
+ *         .bind(form);
+ * </pre>
+ *
+ * @author Vaadin Ltd
+ */
+public class TooltipBinder implements Serializable {
+
+    private final Map<String, String> texts = new HashMap<>();
+    private transient ResourceBundle resourceBundle;
+    private String resourceKeyPrefix = "";
+    private TooltipPosition position = TooltipPosition.TOP;
+    private TooltipAlignment alignment = TooltipAlignment.CENTER;
+
+    /**
+     * Adds texts of tooltips by the ids of the components.
+     *
+     * @param texts the texts by component id
+     * @return this binder
+     */
+    public TooltipBinder withTexts(Map<String, String> texts) {
+        this.texts.putAll(Objects.requireNonNull(texts));
+        return this;
+    }
+
+    /**
+     * Sets a resource bundle with the texts of the tooltips. The key of the
+     * text of a component is its id with the given prefix.
+     * <p>
+     * The resource bundle is not serialized with the binder.
+     *
+     * @param resourceBundle the resource bundle
+     * @param keyPrefix      the prefix of the keys, e.g.
+     *                       <code>"tooltip."</code>, or an empty string
+     * @return this binder
+     */
+    public TooltipBinder withResourceBundle(ResourceBundle resourceBundle, String keyPrefix) {
+        this.resourceBundle = Objects.requireNonNull(resourceBundle);
+        this.resourceKeyPrefix = Objects.requireNonNull(keyPrefix);
+        return this;
+    }
+
+    /**
+     * Sets the position and alignment of the tooltips whose text comes from
+     * the texts or the resource bundle. Default is {@link TooltipPosition#TOP}
+     * and {@link TooltipAlignment#CENTER}.
+     *
+     * @param position  The position of the tooltip {@link TooltipPosition}
+     * @param alignment The alignment of the tooltip {@link TooltipAlignment}
+     * @return this binder
+     */
+    public TooltipBinder withPosition(TooltipPosition position, TooltipAlignment alignment) {
+        this.position = Objects.requireNonNull(position);
+        this.alignment = Objects.requireNonNull(alignment);
+        return this;
+    }
+
+    /**
+     * Binds tooltips to the root component and all its descendants that have
+     * a text. The tooltips are shown by the tooltip manager of the UI of the
+     * root component or, if it is not attached, of the current UI.
+     * <p>
+     * The tooltips stay bound until the returned registration is removed or
+     * the root component is detached, so a form that is rebuilt and bound
+     * again doesn't leave the tooltips of its previous components behind.
+     *
+     * @param root the root of the component tree
+     * @return a {@link Registration} for removing all the bound tooltips
+     */
+    public Registration bind(Component root) {
+        Objects.requireNonNull(root);
+        UI ui = root.getUI().orElseGet(UI::getCurrent);
+        if (ui == null) {
+            throw new IllegalStateException(
+                    "The component is not attached and there is no current UI");
+        }
+        return bind(TooltipManager.get(ui), root);
+    }
+
+    /**
+     * Binds tooltips to the root component and all its descendants that have
+     * a text using a specific tooltip manager. The tooltips stay bound until
+     * the returned registration is removed or the root component is detached.
+     *
+     * @param manager the tooltip manager showing the tooltips
+     * @param root    the root of the component tree
+     * @return a {@link Registration} for removing all the bound tooltips
+     */
+    public Registration bind(TooltipManager manager, Component root) {
+        Objects.requireNonNull(manager);
+        Objects.requireNonNull(root);
+        List<Registration> registrations = new ArrayList<>();
+        Deque<Component> components = new ArrayDeque<>();
+        components.push(root);
+        while (!components.isEmpty()) {
+            Component component = components.pop();
+            String text = component instanceof HasTooltip
+                    ? ((HasTooltip) component).getTooltipText()
+                    : null;
+            if (text != null) {
+                HasTooltip hasTooltip = (HasTooltip) component;
+                registrations.add(manager.register(component, text,
+                        hasTooltip.getTooltipPosition(), hasTooltip.getTooltipAlignment()));
+            } else {
+                text = component.getId().map(this::getText).orElse(null);
+                if (text != null) {
+                    registrations.add(manager.register(component, text, position, alignment));
+                }
+            }
+            // The content of tooltips is not a target of other tooltips
+            if (!(component instanceof Tooltip)) {
+                // Children are pushed in reverse to visit them in document order
+                Object[] children = component.getChildren().toArray();
+                for (int i = children.length - 1; i >= 0; i--) {
+                    components.push((Component) children[i]);
+                }
+            }
+        }
+        Registration binding = () -> registrations.forEach(Registration::remove);
+        registrations.add(root.addDetachListener(event -> binding.remove()));
+        return binding;
+    }
+
+    private String getText(String id) {
+        String text = texts.get(id);
+        if (text == null && resourceBundle != null && resourceBundle.containsKey(resourceKeyPrefix + id)) {
+            text = resourceBundle.getString(resourceKeyPrefix + id);
+        }
+        return text;
+    }
+}
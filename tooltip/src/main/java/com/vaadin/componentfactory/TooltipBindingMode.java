@@ -0,0 +1,23 @@
+package com.vaadin.componentfactory;
+
+/**
+ * Helper enumeration to specify when a <code>Tooltip</code> is bound to its
+ * target component in the browser.
+ * <p>
+ * Binding a tooltip to a target far outside of the viewport is wasted work
+ * until the user scrolls to it, which adds up on long pages with many
+ * tooltips.
+ */
+public enum TooltipBindingMode {
+    /**
+     * The tooltip is bound to its target right away.
+     */
+    IMMEDIATE,
+    /**
+     * The tooltip is bound to its target when the target comes near the
+     * viewport, and a <code>TargetVisibleEvent</code> is fired then. The
+     * content of a content provider is created then too, content added to the
+     * tooltip directly is sent right away.
+     */
+    VIEWPORT
+}
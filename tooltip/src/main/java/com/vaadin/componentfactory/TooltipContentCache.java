@@ -0,0 +1,256 @@
+package com.vaadin.componentfactory;
+
+/*
+ * #%L
+ * Vaadin VCF Tooltip for Vaadin 10
+ * %%
+ * Copyright (C) 2020 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.vaadin.flow.function.SerializableSupplier;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinSession;
+
+/**
+ * Bounded cache for values that are expensive to compute and are shown in
+ * tooltips, e.g. aggregated statistics or results of backend lookups.
+ * <p>
+ * The least recently used values are evicted when the maximum size is
+ * reached, and values can optionally expire a fixed time after they have been
+ * computed. The cache is safe to use from several threads.
+ * <p>
+ * The cache stores the computed values, not the components showing them: a
+ * component can only be attached to one UI, whereas a value can be rendered
+ * into new components any number of times, see
+ * {@link Tooltip#setContentProvider(TooltipContentCache, Object, SerializableSupplier, com.vaadin.flow.function.SerializableFunction)}.
+ * Values stored in a cache of the session should be serializable.
+ *
+ * @author Vaadin Ltd
+ */
+public class TooltipContentCache implements Serializable {
+
+    /**
+     * Default maximum number of values in a cache.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+    private final int maximumSize;
+    private final long expireAfterWrite;
+    private final Map<Object, CacheEntry> entries = new EntryMap();
+    private SerializableSupplier<Long> clock = System::currentTimeMillis;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates a cache with the default maximum size whose values don't
+     * expire.
+     */
+    public TooltipContentCache() {
+        this(DEFAULT_MAXIMUM_SIZE, null);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maximumSize      the maximum number of values in the cache
+     * @param expireAfterWrite the time after which a value is computed again,
+     *                         or <code>null</code> if the values don't expire
+     */
+    public TooltipContentCache(int maximumSize, Duration expireAfterWrite) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("The maximum size must be at least 1");
+        }
+        if (expireAfterWrite != null && (expireAfterWrite.isNegative() || expireAfterWrite.isZero())) {
+            throw new IllegalArgumentException("The expiration time must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.expireAfterWrite = expireAfterWrite == null ? 0 : expireAfterWrite.toMillis();
+    }
+
+    /**
+     * Gets the cache of the session, creating it with the default settings if
+     * needed. The session needs to be locked.
+     *
+     * @param session the session
+     * @return the cache of the session
+     */
+    public static TooltipContentCache forSession(VaadinSession session) {
+        Objects.requireNonNull(session);
+        session.checkHasLock();
+        TooltipContentCache cache = session.getAttribute(TooltipContentCache.class);
+        if (cache == null) {
+            cache = new TooltipContentCache();
+            session.setAttribute(TooltipContentCache.class, cache);
+        }
+        return cache;
+    }
+
+    /**
+     * Gets the cache shared by all the sessions of the application, creating
+     * it with the default settings if needed.
+     *
+     * @param service the service of the application
+     * @return the cache of the application
+     */
+    public static TooltipContentCache forApplication(VaadinService service) {
+        Objects.requireNonNull(service);
+        return service.getContext().getAttribute(TooltipContentCache.class, TooltipContentCache::new);
+    }
+
+    /**
+     * Gets the value of a key, computing it with the loader if it is not in
+     * the cache or has expired. The loader is called without holding the lock
+     * of the cache, so concurrent misses of the same key may compute the value
+     * more than once.
+     *
+     * @param key    the key of the value
+     * @param loader the loader computing the value, not returning
+     *               <code>null</code>
+     * @param <V>    the type of the value
+     * @return the value
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(Object key, SerializableSupplier<V> loader) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(loader);
+        synchronized (this) {
+            CacheEntry entry = entries.get(key);
+            if (entry != null && !isExpired(entry)) {
+                hitCount++;
+                return (V) entry.value;
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictionCount++;
+            }
+            missCount++;
+        }
+        V value = Objects.requireNonNull(loader.get(), "The loader cannot return null");
+        synchronized (this) {
+            entries.put(key, new CacheEntry(value, clock.get()));
+        }
+        return value;
+    }
+
+    /**
+     * Removes the value of a key from the cache.
+     *
+     * @param key the key of the value
+     */
+    public synchronized void invalidate(Object key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes all the values from the cache.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the number of values in the cache, including expired values that
+     * have not been evicted yet.
+     *
+     * @return the number of values
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the maximum number of values in the cache.
+     *
+     * @return the maximum number of values
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Gets how many times a value was found in the cache.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets how many times a value needed to be computed.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets how many values have been evicted because of the size limit or
+     * expiration.
+     *
+     * @return the number of evictions
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    void setClock(SerializableSupplier<Long> clock) {
+        this.clock = clock;
+    }
+
+    private boolean isExpired(CacheEntry entry) {
+        return expireAfterWrite > 0 && clock.get() - entry.written >= expireAfterWrite;
+    }
+
+    /**
+     * Map in access order evicting the least recently used entry when the
+     * maximum size is exceeded.
+     */
+    private class EntryMap extends LinkedHashMap<Object, CacheEntry> {
+
+        private EntryMap() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, CacheEntry> eldest) {
+            if (size() > maximumSize) {
+                evictionCount++;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static class CacheEntry implements Serializable {
+        private final Object value;
+        private final long written;
+
+        private CacheEntry(Object value, long written) {
+            this.value = value;
+            this.written = written;
+        }
+    }
+}
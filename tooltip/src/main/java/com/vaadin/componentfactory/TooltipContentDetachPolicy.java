@@ -0,0 +1,24 @@
+package com.vaadin.componentfactory;
+
+/**
+ * Helper enumeration to specify when the content created by a content
+ * provider of a <code>Tooltip</code> is detached again.
+ * <p>
+ * Detached content is created again by the content provider the next time
+ * the tooltip is opened.
+ */
+public enum TooltipContentDetachPolicy {
+    /**
+     * The content is kept once it has been created.
+     */
+    NEVER,
+    /**
+     * The content is detached as soon as the tooltip is closed.
+     */
+    ON_CLOSE,
+    /**
+     * The content is detached when the tooltip has been closed for the
+     * configured idle timeout.
+     */
+    ON_IDLE
+}
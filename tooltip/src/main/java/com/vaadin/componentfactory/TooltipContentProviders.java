@@ -0,0 +1,298 @@
+package com.vaadin.componentfactory;
+
+/*
+ * #%L
+ * Vaadin VCF Tooltip for Vaadin 10
+ * %%
+ * Copyright (C) 2020 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.DomListenerRegistration;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.function.SerializableSupplier;
+
+import org.slf4j.LoggerFactory;
+
+/**
+ * State of the content providers of a tooltip, creating and removing the
+ * provided content.
+ * <p>
+ * Most tooltips only have static content, so the state is created only when
+ * one of the provider settings is used, which keeps the memory of a plain
+ * tooltip and its serialized size small.
+ *
+ * @author Vaadin Ltd
+ */
+final class TooltipContentProviders implements Serializable {
+
+    private static final String HOVER_INTENT_DELAY_ATTRIBUTE = "hover-intent-delay";
+    private static final String HOVER_INTENT_EVENT = "vcf-tooltip-hover-intent";
+    private static final String TARGET_VISIBLE_EVENT = "vcf-tooltip-target-visible";
+
+    private static final int DEFAULT_ASYNC_CONTENT_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final long DEFAULT_ASYNC_CONTENT_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    private static ThreadPoolExecutor defaultAsyncContentExecutor;
+
+    private final Tooltip tooltip;
+    SerializableSupplier<Component> contentProvider;
+    SerializableFunction<Executor, CompletableFuture<? extends Component>> asyncContentProvider;
+    String asyncContentPlaceholder = Tooltip.DEFAULT_ASYNC_CONTENT_PLACEHOLDER;
+    transient Executor asyncContentExecutor;
+    TooltipContentDetachPolicy contentDetachPolicy = TooltipContentDetachPolicy.NEVER;
+    int contentIdleTimeout = Tooltip.DEFAULT_CONTENT_IDLE_TIMEOUT;
+    int hoverIntentDelay;
+    private transient CompletableFuture<? extends Component> pendingAsyncContent;
+    private long asyncContentStart;
+    private Element asyncContentPlaceholderNode;
+    private Component content;
+    private DomListenerRegistration contentIdleRegistration;
+    private DomListenerRegistration hoverIntentRegistration;
+    private DomListenerRegistration targetVisibleRegistration;
+
+    TooltipContentProviders(Tooltip tooltip) {
+        this.tooltip = tooltip;
+    }
+
+    /**
+     * Checks if a synchronous or asynchronous content provider is set.
+     *
+     * @return <code>true</code> if there is a content provider
+     */
+    boolean hasContentProvider() {
+        return contentProvider != null || asyncContentProvider != null;
+    }
+
+    /**
+     * Gets the executor passed to the asynchronous content provider.
+     *
+     * @return the executor
+     */
+    Executor getAsyncContentExecutor() {
+        return asyncContentExecutor == null ? getDefaultAsyncContentExecutor() : asyncContentExecutor;
+    }
+
+    /**
+     * Creates the content with the provider, unless it has already been
+     * created or is being loaded.
+     */
+    void createContent() {
+        if (content != null || pendingAsyncContent != null) {
+            return;
+        }
+        if (contentProvider != null) {
+            TooltipInstrumentation instrumentation = Tooltip.getInstrumentation();
+            long start = instrumentation == null ? 0 : System.nanoTime();
+            content = contentProvider.get();
+            if (content != null) {
+                tooltip.add(content);
+            }
+            if (instrumentation != null) {
+                instrumentation.contentCreated(tooltip, System.nanoTime() - start, false);
+            }
+        } else if (asyncContentProvider != null) {
+            loadAsyncContent();
+        }
+    }
+
+    /**
+     * Handles closing the tooltip: cancels loading the content and removes the
+     * content if the detach policy says so.
+     */
+    void onClose() {
+        cancelAsyncContent();
+        if (contentDetachPolicy == TooltipContentDetachPolicy.ON_CLOSE) {
+            removeContent();
+        }
+    }
+
+    /**
+     * Cancels loading the content, if it is being loaded.
+     */
+    void cancelAsyncContent() {
+        if (pendingAsyncContent != null) {
+            pendingAsyncContent.cancel(true);
+            pendingAsyncContent = null;
+        }
+        removeAsyncContentPlaceholder();
+    }
+
+    /**
+     * Removes the provided content from the tooltip.
+     */
+    void removeContent() {
+        cancelAsyncContent();
+        if (content != null) {
+            // The content may have been replaced meanwhile, e.g. by setText
+            if (content.getParent().filter(tooltip::equals).isPresent()) {
+                tooltip.remove(content);
+            }
+            content = null;
+        }
+    }
+
+    /**
+     * Adds or removes the listener detaching the content after the tooltip
+     * has been closed for the idle timeout.
+     *
+     * @param synchronizing whether the open state of the tooltip is
+     *                      synchronized from the client
+     */
+    void updateContentIdleListener(boolean synchronizing) {
+        if (contentIdleRegistration != null) {
+            contentIdleRegistration.remove();
+            contentIdleRegistration = null;
+        }
+        if (synchronizing && hasContentProvider()
+                && contentDetachPolicy == TooltipContentDetachPolicy.ON_IDLE) {
+            // The event arrives when the timeout has passed since the last
+            // closing; if the tooltip was reopened meanwhile, the content stays
+            contentIdleRegistration = tooltip.getElement()
+                    .addEventListener(Tooltip.HIDDEN_CHANGED_EVENT, event -> {
+                        if (tooltip.isClosed()) {
+                            removeContent();
+                        }
+                    })
+                    .setFilter("event.detail.value")
+                    .debounce(contentIdleTimeout);
+        }
+    }
+
+    /**
+     * Adds or removes the listener creating the content when the pointer or
+     * focus has stayed on the target for the hover intent delay.
+     *
+     * @param synchronizing whether the open state of the tooltip is
+     *                      synchronized from the client
+     */
+    void updateHoverIntentListener(boolean synchronizing) {
+        if (hoverIntentRegistration != null) {
+            hoverIntentRegistration.remove();
+            hoverIntentRegistration = null;
+        }
+        if (synchronizing && hasContentProvider() && hoverIntentDelay > 0) {
+            // The connector only starts timers for tooltips with the attribute
+            tooltip.getElement().setAttribute(HOVER_INTENT_DELAY_ATTRIBUTE, String.valueOf(hoverIntentDelay));
+            hoverIntentRegistration = tooltip.getElement().addEventListener(HOVER_INTENT_EVENT,
+                    event -> createContent());
+        } else {
+            tooltip.getElement().removeAttribute(HOVER_INTENT_DELAY_ATTRIBUTE);
+        }
+    }
+
+    /**
+     * Adds or removes the listener creating the content when the target comes
+     * near the viewport, for tooltips bound with
+     * {@link TooltipBindingMode#VIEWPORT}.
+     */
+    void updateTargetVisibleListener() {
+        if (targetVisibleRegistration != null) {
+            targetVisibleRegistration.remove();
+            targetVisibleRegistration = null;
+        }
+        if (hasContentProvider() && tooltip.getBindingMode() == TooltipBindingMode.VIEWPORT) {
+            targetVisibleRegistration = tooltip.getElement().addEventListener(TARGET_VISIBLE_EVENT,
+                    event -> createContent());
+        }
+    }
+
+    private void loadAsyncContent() {
+        UI ui = tooltip.getUI().orElse(null);
+        if (ui == null) {
+            return;
+        }
+        if (asyncContentPlaceholder != null) {
+            asyncContentPlaceholderNode = Element.createText(asyncContentPlaceholder);
+            tooltip.getElement().appendChild(asyncContentPlaceholderNode);
+        }
+        asyncContentStart = System.nanoTime();
+        CompletableFuture<? extends Component> future = asyncContentProvider.apply(getAsyncContentExecutor());
+        pendingAsyncContent = future;
+        if (future.isDone()) {
+            applyAsyncContent(future);
+        } else {
+            future.whenComplete((loaded, error) -> {
+                if (!future.isCancelled()) {
+                    ui.access(() -> applyAsyncContent(future));
+                }
+            });
+        }
+    }
+
+    private void applyAsyncContent(CompletableFuture<? extends Component> future) {
+        if (future != pendingAsyncContent || future.isCancelled()) {
+            return;
+        }
+        pendingAsyncContent = null;
+        removeAsyncContentPlaceholder();
+        try {
+            content = future.get();
+            if (content != null) {
+                tooltip.add(content);
+            }
+            TooltipInstrumentation instrumentation = Tooltip.getInstrumentation();
+            if (instrumentation != null) {
+                instrumentation.contentCreated(tooltip, System.nanoTime() - asyncContentStart, true);
+            }
+        } catch (ExecutionException e) {
+            // Reopening the tooltip tries again
+            LoggerFactory.getLogger(Tooltip.class).warn("Loading the content of the tooltip failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void removeAsyncContentPlaceholder() {
+        if (asyncContentPlaceholderNode != null) {
+            asyncContentPlaceholderNode.removeFromParent();
+            asyncContentPlaceholderNode = null;
+        }
+    }
+
+    /**
+     * Gets the executor used when none has been set: a bounded pool of its
+     * own, so loads blocking on a backend don't starve the common fork join
+     * pool. The daemon threads end when they have been idle for a while, so
+     * they don't keep the application alive or loaded.
+     */
+    private static synchronized Executor getDefaultAsyncContentExecutor() {
+        if (defaultAsyncContentExecutor == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            defaultAsyncContentExecutor = new ThreadPoolExecutor(DEFAULT_ASYNC_CONTENT_THREADS,
+                    DEFAULT_ASYNC_CONTENT_THREADS, DEFAULT_ASYNC_CONTENT_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable,
+                                "vcf-tooltip-content-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            defaultAsyncContentExecutor.allowCoreThreadTimeOut(true);
+        }
+        return defaultAsyncContentExecutor;
+    }
+}
@@ -0,0 +1,131 @@
+package com.vaadin.componentfactory;
+
+/*
+ * #%L
+ * Vaadin VCF Tooltip for Vaadin 10
+ * %%
+ * Copyright (C) 2020 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.vaadin.flow.server.VaadinService;
+
+import org.jsoup.Jsoup;
+import org.jsoup.safety.Whitelist;
+
+/**
+ * Registry of the {@link SharedTooltipContent} of an application, e.g. static
+ * help texts shown by the same tooltips in every session. The registry is
+ * safe to use from several threads.
+ * <p>
+ * HTML content is sanitized once when it is registered, keeping basic text
+ * formatting, lists, links and headings and removing scripts, event handler
+ * attributes and anything else not allowed.
+ *
+ * <pre>
+ * TooltipContentRegistry registry = TooltipContentRegistry.forApplication(VaadinService.getCurrent());
+ * registry.registerHtml("help.email", "&lt;h5&gt;Email&lt;/h5&gt;&lt;p&gt;Used for password resets.&lt;/p&gt;");
+ * tooltip.setSharedContent(registry.get("help.email"));
+ * </pre>
+ *
+ * @author Vaadin Ltd
+ */
+public class TooltipContentRegistry implements Serializable {
+
+    private final Map<String, SharedTooltipContent> contents = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the registry shared by all the sessions of the application,
+     * creating it if needed.
+     *
+     * @param service the service of the application
+     * @return the registry of the application
+     */
+    public static TooltipContentRegistry forApplication(VaadinService service) {
+        Objects.requireNonNull(service);
+        return service.getContext().getAttribute(TooltipContentRegistry.class, TooltipContentRegistry::new);
+    }
+
+    /**
+     * Registers plain text content, replacing the content registered before
+     * with the key.
+     *
+     * @param key  the key of the content
+     * @param text the text
+     * @return the registered content
+     */
+    public SharedTooltipContent registerText(String key, String text) {
+        Objects.requireNonNull(text);
+        return register(new SharedTooltipContent(key, text, null));
+    }
+
+    /**
+     * Registers HTML content, replacing the content registered before with
+     * the key. The HTML is sanitized before it is stored.
+     *
+     * @param key  the key of the content
+     * @param html the HTML
+     * @return the registered content
+     */
+    public SharedTooltipContent registerHtml(String key, String html) {
+        Objects.requireNonNull(html);
+        return register(new SharedTooltipContent(key, null, sanitize(html)));
+    }
+
+    /**
+     * Gets the content registered with the key.
+     *
+     * @param key the key of the content
+     * @return the content, or <code>null</code> if nothing is registered with
+     *         the key
+     */
+    public SharedTooltipContent get(String key) {
+        return contents.get(Objects.requireNonNull(key));
+    }
+
+    /**
+     * Removes the content registered with the key. Tooltips already showing
+     * the content keep showing it.
+     *
+     * @param key the key of the content
+     */
+    public void unregister(String key) {
+        contents.remove(Objects.requireNonNull(key));
+    }
+
+    /**
+     * Gets the number of registered contents.
+     *
+     * @return the number of contents
+     */
+    public int size() {
+        return contents.size();
+    }
+
+    private SharedTooltipContent register(SharedTooltipContent content) {
+        contents.put(content.getKey(), content);
+        return content;
+    }
+
+    static String sanitize(String html) {
+        Whitelist whitelist = Whitelist.basic().addTags("h1", "h2", "h3", "h4", "h5", "h6", "div", "span");
+        return Jsoup.clean(html, whitelist);
+    }
+}
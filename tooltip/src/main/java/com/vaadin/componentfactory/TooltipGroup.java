@@ -0,0 +1,88 @@
+package com.vaadin.componentfactory;
+
+/*
+ * #%L
+ * Vaadin VCF Tooltip for Vaadin 10
+ * %%
+ * Copyright (C) 2020 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Group of mutually exclusive tooltips: opening a member of the group closes
+ * the other members.
+ * <p>
+ * The members are closed in the browser as soon as another member opens, no
+ * matter if it is opened by the server or by hovering its target, without a
+ * round trip to the server or any calls for the other members. Membership is
+ * only an attribute of the tooltip element, so a group can have any number
+ * of members.
+ *
+ * <pre>
+ * TooltipGroup group = new TooltipGroup();
+ * group.add(firstTooltip, secondTooltip, thirdTooltip);
+ * secondTooltip.open(); // closes the others
+ * </pre>
+ *
+ * @author Vaadin Ltd
+ */
+public class TooltipGroup implements Serializable {
+
+    static final String GROUP_ATTRIBUTE = "data-vcf-tooltip-group";
+
+    // Random, as a counter would start over on another server after failover
+    // and could give a new group the id of an existing one
+    private final String id = UUID.randomUUID().toString();
+
+    /**
+     * Adds tooltips to the group. A tooltip can be a member of one group at a
+     * time, adding it to this group removes it from its previous group.
+     *
+     * @param tooltips the tooltips to add
+     */
+    public void add(Tooltip... tooltips) {
+        for (Tooltip tooltip : tooltips) {
+            Objects.requireNonNull(tooltip).getElement().setAttribute(GROUP_ATTRIBUTE, id);
+        }
+    }
+
+    /**
+     * Removes tooltips from the group. Tooltips that are not members of the
+     * group are ignored.
+     *
+     * @param tooltips the tooltips to remove
+     */
+    public void remove(Tooltip... tooltips) {
+        for (Tooltip tooltip : tooltips) {
+            if (contains(tooltip)) {
+                tooltip.getElement().removeAttribute(GROUP_ATTRIBUTE);
+            }
+        }
+    }
+
+    /**
+     * Checks if a tooltip is a member of the group.
+     *
+     * @param tooltip the tooltip
+     * @return <code>true</code> if the tooltip is a member of the group
+     */
+    public boolean contains(Tooltip tooltip) {
+        return id.equals(tooltip.getElement().getAttribute(GROUP_ATTRIBUTE));
+    }
+}
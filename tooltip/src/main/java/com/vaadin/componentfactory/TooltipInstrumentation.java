@@ -0,0 +1,108 @@
+package com.vaadin.componentfactory;
+
+/*
+ * #%L
+ * Vaadin VCF Tooltip for Vaadin 10
+ * %%
+ * Copyright (C) 2020 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.vaadin.flow.component.UI;
+
+/**
+ * Listener for the operations of the tooltips, e.g. for publishing them as
+ * metrics. Set it with {@link Tooltip#setInstrumentation(TooltipInstrumentation)}.
+ * <p>
+ * All the methods are called while the session is locked and should return
+ * quickly. They do nothing by default, so an implementation only needs to
+ * override the ones it is interested in. For example, with Micrometer:
+ *
+ * <pre>
+ * Tooltip.setInstrumentation(new TooltipInstrumentation() {
+ *     &#64;Override
+ *     public void openedChanged(Tooltip tooltip, boolean opened) {
+ *         registry.counter("tooltip.opened.changes", "opened", String.valueOf(opened)).increment();
+ *     }
+ *
+ *     &#64;Override
+ *     public void contentCreated(Tooltip tooltip, long durationNanos, boolean async) {
+ *         registry.timer("tooltip.content.creation").record(durationNanos, TimeUnit.NANOSECONDS);
+ *     }
+ * });
+ * </pre>
+ * <p>
+ * The <code>tooltip-jfr</code> module, requiring Java 11, has an
+ * instrumentation emitting JDK Flight Recorder events.
+ *
+ * @author Vaadin Ltd
+ */
+public interface TooltipInstrumentation {
+
+    /**
+     * Called when a tooltip is attached to a UI.
+     *
+     * @param ui           the UI
+     * @param liveTooltips the number of tooltips attached to the UI
+     */
+    default void tooltipAttached(UI ui, int liveTooltips) {
+    }
+
+    /**
+     * Called when a tooltip is detached from a UI.
+     *
+     * @param ui           the UI
+     * @param liveTooltips the number of tooltips attached to the UI
+     */
+    default void tooltipDetached(UI ui, int liveTooltips) {
+    }
+
+    /**
+     * Called when the open state of a tooltip is synchronized from the client.
+     *
+     * @param tooltip the tooltip
+     * @param opened  <code>true</code> if the tooltip was opened,
+     *                <code>false</code> if it was closed
+     */
+    default void openedChanged(Tooltip tooltip, boolean opened) {
+    }
+
+    /**
+     * Called when the targets and open states queued with
+     * {@link Tooltip#attachToComponent(com.vaadin.flow.component.Component)},
+     * {@link Tooltip#open()} and {@link Tooltip#close()} are sent to the
+     * client in one JavaScript invocation.
+     *
+     * @param ui       the UI
+     * @param bindings the number of tooltips whose target is set
+     * @param hides    the number of tooltips that are hidden
+     * @param shows    the number of tooltips that are shown
+     */
+    default void batchSent(UI ui, int bindings, int hides, int shows) {
+    }
+
+    /**
+     * Called when a content provider has created the content of a tooltip.
+     *
+     * @param tooltip       the tooltip
+     * @param durationNanos the time taken by the provider in nanoseconds, for
+     *                      asynchronous providers the time from starting the
+     *                      load until the content is added
+     * @param async         <code>true</code> if the content was loaded by an
+     *                      asynchronous content provider
+     */
+    default void contentCreated(Tooltip tooltip, long durationNanos, boolean async) {
+    }
+}
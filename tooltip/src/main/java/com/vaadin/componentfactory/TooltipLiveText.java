@@ -0,0 +1,188 @@
+package com.vaadin.componentfactory;
+
+/*
+ * #%L
+ * Vaadin VCF Tooltip for Vaadin 10
+ * %%
+ * Copyright (C) 2020 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Live text of a tooltip, e.g. a queue depth or a price, that can be updated
+ * from any thread at any rate.
+ * <p>
+ * The text is patched in place in the single text node of the tooltip, and
+ * it is applied at most once per minimum update interval. While the tooltip
+ * is closed the updates are not applied at all, only the latest text is kept
+ * and shown when the tooltip opens, so the work and push traffic depend on
+ * the number of open tooltips instead of the rate of updates. The open state
+ * is synchronized from the client for the bound tooltip, unless its sync mode
+ * is {@link TooltipSyncMode#NONE}.
+ *
+ * <pre>
+ * TooltipLiveText depth = TooltipLiveText.bind(queueTooltip);
+ * queue.addListener(size -&gt; depth.setText("Queued: " + size));
+ * </pre>
+ *
+ * @author Vaadin Ltd
+ */
+public final class TooltipLiveText implements Serializable {
+
+    /**
+     * Default minimum time in milliseconds between two updates of the text.
+     */
+    public static final int DEFAULT_MIN_UPDATE_INTERVAL = 500;
+
+    private final Tooltip tooltip;
+    private final Registration openedRegistration;
+    private volatile int minUpdateInterval = DEFAULT_MIN_UPDATE_INTERVAL;
+    private volatile UI ui;
+    private boolean opened;
+    private boolean applyScheduled;
+    private long lastApplied;
+    private String latestText;
+
+    private TooltipLiveText(Tooltip tooltip) {
+        this.tooltip = tooltip;
+        opened = tooltip.isOpen() && tooltip.getSyncMode() != TooltipSyncMode.NONE;
+        ui = tooltip.getUI().orElse(null);
+        openedRegistration = tooltip.addOpenedChangeListener(event -> onOpenedChange(event.isOpened()));
+    }
+
+    /**
+     * Binds live text to the tooltip, replacing its content with the text once
+     * it is set. Must be called while holding the session lock.
+     *
+     * @param tooltip the tooltip
+     * @return the live text of the tooltip
+     */
+    public static TooltipLiveText bind(Tooltip tooltip) {
+        return new TooltipLiveText(Objects.requireNonNull(tooltip));
+    }
+
+    /**
+     * Stops following the open state of the tooltip. Updates of the text are
+     * ignored from then on. Must be called while holding the session lock.
+     */
+    public void unbind() {
+        openedRegistration.remove();
+        synchronized (this) {
+            opened = false;
+        }
+    }
+
+    /**
+     * Sets the minimum time between two updates of the text. Default is
+     * {@value #DEFAULT_MIN_UPDATE_INTERVAL} milliseconds.
+     *
+     * @param minUpdateInterval the interval in milliseconds
+     */
+    public void setMinUpdateInterval(int minUpdateInterval) {
+        if (minUpdateInterval < 0) {
+            throw new IllegalArgumentException("The update interval cannot be negative");
+        }
+        this.minUpdateInterval = minUpdateInterval;
+    }
+
+    /**
+     * Gets the minimum time between two updates of the text.
+     *
+     * @return the interval in milliseconds
+     */
+    public int getMinUpdateInterval() {
+        return minUpdateInterval;
+    }
+
+    /**
+     * Sets the text. Can be called from any thread. The text is shown when
+     * the minimum update interval has passed since the previous update, or
+     * when the tooltip opens if it is closed.
+     *
+     * @param text the text
+     */
+    public void setText(String text) {
+        long delay;
+        UI current;
+        synchronized (this) {
+            latestText = text;
+            current = ui;
+            if (!opened || applyScheduled || current == null) {
+                return;
+            }
+            applyScheduled = true;
+            delay = Math.max(0, lastApplied + minUpdateInterval - System.currentTimeMillis());
+        }
+        TooltipUpdater.getScheduler(current).schedule(this::access, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets the latest text set, which may not have been shown yet.
+     *
+     * @return the latest text
+     */
+    public synchronized String getText() {
+        return latestText;
+    }
+
+    private void onOpenedChange(boolean opened) {
+        ui = tooltip.getUI().orElse(null);
+        synchronized (this) {
+            this.opened = opened;
+        }
+        if (opened) {
+            // The updates received while closed are shown right away
+            applyText();
+        }
+    }
+
+    private void access() {
+        UI current = ui;
+        try {
+            if (current == null) {
+                throw new UIDetachedException();
+            }
+            current.access(this::applyText);
+        } catch (UIDetachedException e) {
+            synchronized (this) {
+                applyScheduled = false;
+            }
+        }
+    }
+
+    private void applyText() {
+        String text;
+        synchronized (this) {
+            applyScheduled = false;
+            if (!opened) {
+                return;
+            }
+            lastApplied = System.currentTimeMillis();
+            text = latestText;
+        }
+        if (text != null && !text.equals(tooltip.getElement().getText())) {
+            // Updates the single text node in place
+            tooltip.setText(text);
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package com.vaadin.componentfactory;
+
+/*
+ * #%L
+ * Vaadin VCF Tooltip for Vaadin 10
+ * %%
+ * Copyright (C) 2020 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.function.SerializableSupplier;
+import com.vaadin.flow.shared.Registration;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+
+/**
+ * UI scoped manager that shows the tooltips of many target components using a
+ * small pool of <code>vcf-tooltip</code> elements.
+ * <p>
+ * Registering a target only adds a few listeners to its element in the
+ * browser. The content of a registered target is created and moved into one
+ * of the pooled tooltips when the target is hovered or focused, so the number
+ * of tooltip elements stays the same no matter how many targets are
+ * registered.
+ * <p>
+ * The manager only keeps the targets that are attached. A target that is
+ * detached is released, so a component removed for good can be garbage
+ * collected even if its {@link Registration} is never removed, and it is
+ * registered again if it is attached later.
+ *
+ * @author Vaadin Ltd
+ */
+public class TooltipManager implements Serializable {
+
+    /**
+     * Default number of tooltip elements in the pool.
+     */
+    public static final int DEFAULT_POOL_SIZE = 2;
+
+    static final String TARGET_ENTER_EVENT = "vcf-tooltip-target-enter";
+
+    private final UI ui;
+    private final List<PooledTooltip> pool = new ArrayList<>();
+    private final Map<String, Target> targets = new HashMap<>();
+    private final Set<Target> pendingRegistrations = new LinkedHashSet<>();
+    private final List<Element> pendingUnregistrations = new ArrayList<>();
+    private Tooltip host;
+    private int poolSize = DEFAULT_POOL_SIZE;
+    private int nextKey;
+    private boolean poolChanged;
+    private boolean flushScheduled;
+
+    private TooltipManager(UI ui) {
+        this.ui = ui;
+    }
+
+    /**
+     * Gets the tooltip manager of the UI, creating it if needed.
+     *
+     * @param ui the UI
+     * @return the tooltip manager of the UI
+     */
+    public static TooltipManager get(UI ui) {
+        Objects.requireNonNull(ui);
+        TooltipManager manager = ComponentUtil.getData(ui, TooltipManager.class);
+        if (manager == null) {
+            manager = new TooltipManager(ui);
+            ComponentUtil.setData(ui, TooltipManager.class, manager);
+        }
+        return manager;
+    }
+
+    /**
+     * Registers a target component showing a text tooltip.
+     *
+     * @param target the component showing the tooltip
+     * @param text   the text of the tooltip
+     * @return a {@link Registration} for removing the target
+     */
+    public Registration register(Component target, String text) {
+        return register(target, text, TooltipPosition.TOP, TooltipAlignment.CENTER);
+    }
+
+    /**
+     * Registers a target component showing a text tooltip with a specific
+     * position and alignment.
+     *
+     * @param target    the component showing the tooltip
+     * @param text      the text of the tooltip
+     * @param position  The position of the tooltip {@link TooltipPosition}
+     * @param alignment The alignment of the tooltip {@link TooltipAlignment}
+     * @return a {@link Registration} for removing the target
+     */
+    public Registration register(Component target, String text,
+                                 TooltipPosition position, TooltipAlignment alignment) {
+        Objects.requireNonNull(text);
+        return register(new Target(target, text, null, position, alignment));
+    }
+
+    /**
+     * Registers a target component. The content provider is called each time
+     * the target is hovered or focused while its content is not already
+     * displayed in one of the pooled tooltips.
+     *
+     * @param target          the component showing the tooltip
+     * @param contentProvider the provider of the content
+     * @return a {@link Registration} for removing the target
+     */
+    public Registration register(Component target, SerializableSupplier<Component> contentProvider) {
+        return register(target, contentProvider, TooltipPosition.TOP, TooltipAlignment.CENTER);
+    }
+
+    /**
+     * Registers a target component with a specific position and alignment of
+     * the tooltip.
+     *
+     * @param target          the component showing the tooltip
+     * @param contentProvider the provider of the content
+     * @param position        The position of the tooltip {@link TooltipPosition}
+     * @param alignment       The alignment of the tooltip {@link TooltipAlignment}
+     * @return a {@link Registration} for removing the target
+     */
+    public Registration register(Component target, SerializableSupplier<Component> contentProvider,
+                                 TooltipPosition position, TooltipAlignment alignment) {
+        Objects.requireNonNull(contentProvider);
+        return register(new Target(target, null, contentProvider, position, alignment));
+    }
+
+    /**
+     * Registers a target component whose tooltip is rendered in the browser
+     * from a template. Only the model created from the item is sent when the
+     * target is hovered or focused.
+     *
+     * @param target   the component showing the tooltip
+     * @param template the template of the content
+     * @param item     the item rendered by the template
+     * @param <T>      the type of the item
+     * @return a {@link Registration} for removing the target
+     * @see Tooltip#setTemplateContent(TooltipTemplate, Object)
+     */
+    public <T> Registration register(Component target, TooltipTemplate<T> template, T item) {
+        return register(target, template, item, TooltipPosition.TOP, TooltipAlignment.CENTER);
+    }
+
+    /**
+     * Registers a target component whose tooltip is rendered in the browser
+     * from a template with a specific position and alignment of the tooltip.
+     *
+     * @param target    the component showing the tooltip
+     * @param template  the template of the content
+     * @param item      the item rendered by the template
+     * @param position  The position of the tooltip {@link TooltipPosition}
+     * @param alignment The alignment of the tooltip {@link TooltipAlignment}
+     * @param <T>       the type of the item
+     * @return a {@link Registration} for removing the target
+     */
+    public <T> Registration register(Component target, TooltipTemplate<T> template, T item,
+                                     TooltipPosition position, TooltipAlignment alignment) {
+        Objects.requireNonNull(template);
+        Target registered = new Target(target, null, null, position, alignment);
+        registered.template = template;
+        registered.item = item;
+        return register(registered);
+    }
+
+    private Registration register(Target registered) {
+        Objects.requireNonNull(registered.component);
+        Objects.requireNonNull(registered.position);
+        Objects.requireNonNull(registered.alignment);
+        ensurePool();
+
+        registered.key = String.valueOf(nextKey++);
+        registered.attachRegistration = registered.component
+                .addAttachListener(event -> queueRegistration(registered));
+        registered.detachRegistration = registered.component
+                .addDetachListener(event -> release(registered));
+        if (registered.component.getElement().getNode().isAttached()) {
+            queueRegistration(registered);
+        }
+        return () -> unregister(registered);
+    }
+
+    /**
+     * Sets the number of tooltip elements in the pool. Default is
+     * {@value #DEFAULT_POOL_SIZE}.
+     *
+     * @param poolSize the number of tooltip elements, at least 1
+     */
+    public void setPoolSize(int poolSize) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("The pool size must be at least 1");
+        }
+        this.poolSize = poolSize;
+        if (!pool.isEmpty()) {
+            ensurePool();
+        }
+    }
+
+    /**
+     * Gets the number of tooltip elements in the pool.
+     *
+     * @return the number of tooltip elements
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Gets the number of registered targets that are attached.
+     *
+     * @return the number of registered targets that are attached
+     */
+    public int getTargetCount() {
+        return targets.size();
+    }
+
+    private void ensurePool() {
+        while (pool.size() < poolSize) {
+            Tooltip tooltip = new Tooltip();
+            tooltip.setManualMode(true);
+            if (host == null) {
+                // The first tooltip also receives the events of the targets
+                tooltip.getElement().addEventListener(TARGET_ENTER_EVENT,
+                        event -> onTargetEnter(event.getEventData().getString("event.detail.key")))
+                        .addEventData("event.detail.key");
+                host = tooltip;
+            }
+            ui.add(tooltip);
+            pool.add(new PooledTooltip(tooltip));
+            poolChanged = true;
+        }
+        for (int i = pool.size() - 1; i >= 0 && pool.size() > poolSize; i--) {
+            if (pool.get(i).tooltip != host) {
+                ui.remove(pool.remove(i).tooltip);
+                poolChanged = true;
+            }
+        }
+        if (poolChanged) {
+            scheduleFlush();
+        }
+    }
+
+    private void onTargetEnter(String key) {
+        Target target = targets.get(key);
+        if (target == null) {
+            return;
+        }
+        PooledTooltip pooled = pool.stream()
+                .filter(candidate -> key.equals(candidate.key))
+                .findFirst()
+                .orElse(pool.get(0));
+        // The most recently used tooltip is kept last, so the first one is
+        // the least recently used
+        pool.remove(pooled);
+        pool.add(pooled);
+
+        Tooltip tooltip = pooled.tooltip;
+        if (!key.equals(pooled.key)) {
+            if (target.text != null) {
+                tooltip.setText(target.text);
+            } else if (target.template != null) {
+                setTemplateContent(tooltip, target);
+            } else {
+                tooltip.removeAll();
+                Component content = target.contentProvider.get();
+                if (content != null) {
+                    tooltip.add(content);
+                }
+            }
+            tooltip.setPosition(target.position);
+            tooltip.setAlignment(target.alignment);
+            pooled.key = key;
+        }
+        // Shown only before the response, after the batched template
+        // rendering of the content
+        ui.beforeClientResponse(tooltip, context -> ui.getPage().executeJs(
+                "window.Vaadin.Flow.vcfTooltipConnector.showFor($0, $1);",
+                tooltip.getElement(), target.component.getElement()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void setTemplateContent(Tooltip tooltip, Target target) {
+        tooltip.setTemplateContent((TooltipTemplate<T>) target.template, (T) target.item);
+    }
+
+    private void unregister(Target target) {
+        if (target.attachRegistration == null) {
+            return;
+        }
+        target.attachRegistration.remove();
+        target.detachRegistration.remove();
+        target.attachRegistration = null;
+        target.detachRegistration = null;
+        if (release(target) && target.component.getElement().getNode().isAttached()) {
+            pendingUnregistrations.add(target.component.getElement());
+            scheduleFlush();
+        }
+    }
+
+    private boolean release(Target target) {
+        if (targets.remove(target.key) == null) {
+            return false;
+        }
+        pendingRegistrations.remove(target);
+        pool.stream()
+                .filter(pooled -> target.key.equals(pooled.key))
+                .forEach(pooled -> {
+                    pooled.tooltip.removeAll();
+                    pooled.key = null;
+                });
+        return true;
+    }
+
+    private void queueRegistration(Target target) {
+        targets.put(target.key, target);
+        pendingRegistrations.add(target);
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            ui.beforeClientResponse(ui, context -> flush());
+        }
+    }
+
+    private void flush() {
+        flushScheduled = false;
+        if (poolChanged) {
+            poolChanged = false;
+            List<Serializable> tooltips = new ArrayList<>();
+            pool.forEach(pooled -> tooltips.add(pooled.tooltip.getElement()));
+            ui.getPage().executeJs("window.Vaadin.Flow.vcfTooltipConnector.initPool("
+                    + TooltipBatch.arrayOf(0, tooltips.size()) + ");", tooltips.toArray(new Serializable[0]));
+        }
+        if (!pendingUnregistrations.isEmpty()) {
+            Serializable[] elements = pendingUnregistrations.toArray(new Serializable[0]);
+            pendingUnregistrations.clear();
+            ui.getPage().executeJs("window.Vaadin.Flow.vcfTooltipConnector.unregisterTargets("
+                    + TooltipBatch.arrayOf(0, elements.length) + ");", elements);
+        }
+        if (!pendingRegistrations.isEmpty()) {
+            JsonArray keys = Json.createArray();
+            List<Serializable> parameters = new ArrayList<>();
+            parameters.add(host.getElement());
+            parameters.add(keys);
+            for (Target target : pendingRegistrations) {
+                if (target.component.getElement().getNode().isAttached()) {
+                    keys.set(keys.length(), target.key);
+                    parameters.add(target.component.getElement());
+                }
+            }
+            pendingRegistrations.clear();
+            if (keys.length() > 0) {
+                ui.getPage().executeJs("window.Vaadin.Flow.vcfTooltipConnector.registerTargets($0, $1, "
+                        + TooltipBatch.arrayOf(2, keys.length()) + ");", parameters.toArray(new Serializable[0]));
+            }
+        }
+    }
+
+    private static class PooledTooltip implements Serializable {
+        private final Tooltip tooltip;
+        private String key;
+
+        private PooledTooltip(Tooltip tooltip) {
+            this.tooltip = tooltip;
+        }
+    }
+
+    private static class Target implements Serializable {
+        private final Component component;
+        private final String text;
+        private final SerializableSupplier<Component> contentProvider;
+        private final TooltipPosition position;
+        private final TooltipAlignment alignment;
+        private TooltipTemplate<?> template;
+        private Object item;
+        private String key;
+        private Registration attachRegistration;
+        private Registration detachRegistration;
+
+        private Target(Component component, String text,
+                       SerializableSupplier<Component> contentProvider,
+                       TooltipPosition position, TooltipAlignment alignment) {
+            this.component = component;
+            this.text = text;
+            this.contentProvider = contentProvider;
+            this.position = position;
+            this.alignment = alignment;
+        }
+    }
+}
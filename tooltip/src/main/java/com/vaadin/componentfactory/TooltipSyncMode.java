@@ -0,0 +1,25 @@
+package com.vaadin.componentfactory;
+
+/**
+ * Helper enumeration to specify when the open state of a <code>Tooltip</code>
+ * is synchronized from the client to the server.
+ * <p>
+ * Each synchronization is a round trip to the server, so tooltips only
+ * shown on hover don't need to synchronize anything.
+ */
+public enum TooltipSyncMode {
+    /**
+     * The open state is never synchronized. Opened change listeners and
+     * content providers are not notified.
+     */
+    NONE,
+    /**
+     * The open state is synchronized only while there are opened change
+     * listeners or content providers.
+     */
+    ON_DEMAND,
+    /**
+     * The open state is always synchronized.
+     */
+    EAGER
+}
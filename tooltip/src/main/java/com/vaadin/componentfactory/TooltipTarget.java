@@ -0,0 +1,175 @@
+package com.vaadin.componentfactory;
+
+/*
+ * #%L
+ * Vaadin VCF Tooltip for Vaadin 10
+ * %%
+ * Copyright (C) 2020 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Binding of a tooltip to its target component, following the attach and
+ * detach of the target to bind it again when its element is created anew in
+ * the browser and to release the target element in the browser when it is
+ * removed.
+ * <p>
+ * The listeners on the target exist only while the tooltip is attached, and
+ * they refer to the binding only weakly, so a long-lived target doesn't keep
+ * removed tooltips. The binding refers to the target and to its listeners
+ * only weakly, as the registrations of the listeners hold the state node of
+ * the target, so a removed target can be collected even though the tooltip
+ * stays attached.
+ *
+ * @author Vaadin Ltd
+ */
+final class TooltipTarget implements Serializable {
+
+    private final Tooltip tooltip;
+    private transient WeakReference<Component> target;
+    private transient WeakReference<TargetListener> listener;
+
+    TooltipTarget(Tooltip tooltip, Component target) {
+        this.tooltip = tooltip;
+        this.target = new WeakReference<>(target);
+    }
+
+    /**
+     * Starts following the target and binds the tooltip to it if it is
+     * attached. Called when the tooltip is attached.
+     *
+     * @param ui the UI of the tooltip
+     */
+    void onTooltipAttach(UI ui) {
+        Component component = target.get();
+        if (component == null) {
+            return;
+        }
+        if (listener == null) {
+            listener = new WeakReference<>(new TargetListener(this, component));
+        }
+        if (component.getUI().isPresent()) {
+            TooltipBatch.get(ui).bind(tooltip, component);
+        }
+    }
+
+    /**
+     * Stops following the target and, if the target stays attached, releases
+     * the removed tooltip from it in the browser. Called when the tooltip is
+     * detached.
+     *
+     * @param ui the UI of the tooltip
+     */
+    void onTooltipDetach(UI ui) {
+        stopFollowing();
+        Component component = target.get();
+        if (component != null && component.getElement().getNode().isAttached()) {
+            TooltipBatch.get(ui).releaseTarget(component);
+        }
+    }
+
+    private void stopFollowing() {
+        TargetListener current = listener == null ? null : listener.get();
+        if (current != null) {
+            current.remove();
+        }
+        listener = null;
+    }
+
+    /**
+     * Stops following the target and unbinds the tooltip from it. Called when
+     * the tooltip is assigned to another target.
+     */
+    void release() {
+        stopFollowing();
+        unbind();
+        target.clear();
+    }
+
+    private void bind(Component component) {
+        tooltip.getUI().ifPresent(ui -> TooltipBatch.get(ui).bind(tooltip, component));
+    }
+
+    private void unbind() {
+        // Only the last binding queued for the tooltip is sent, so detaching
+        // and attaching the target in the same round trip binds it again
+        tooltip.getUI().ifPresent(ui -> TooltipBatch.get(ui).bind(tooltip, null));
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeObject(target.get());
+        out.writeObject(listener == null ? null : listener.get());
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        target = new WeakReference<>((Component) in.readObject());
+        TargetListener current = (TargetListener) in.readObject();
+        listener = current == null ? null : new WeakReference<>(current);
+    }
+
+    /**
+     * Attach and detach listeners of the target, kept reachable only by the
+     * target itself.
+     */
+    private static final class TargetListener implements Serializable {
+
+        private transient WeakReference<TooltipTarget> binding;
+        private final Registration attachRegistration;
+        private final Registration detachRegistration;
+
+        private TargetListener(TooltipTarget binding, Component component) {
+            this.binding = new WeakReference<>(binding);
+            attachRegistration = component.getElement().addAttachListener(event -> {
+                TooltipTarget current = this.binding.get();
+                if (current != null) {
+                    current.bind(component);
+                }
+            });
+            detachRegistration = component.getElement().addDetachListener(event -> {
+                TooltipTarget current = this.binding.get();
+                if (current != null) {
+                    current.unbind();
+                }
+            });
+        }
+
+        private void remove() {
+            attachRegistration.remove();
+            detachRegistration.remove();
+        }
+
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            out.defaultWriteObject();
+            out.writeObject(binding.get());
+        }
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            binding = new WeakReference<>((TooltipTarget) in.readObject());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.vaadin.componentfactory;
+
+/*
+ * #%L
+ * Vaadin VCF Tooltip for Vaadin 10
+ * %%
+ * Copyright (C) 2020 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.vaadin.flow.function.ValueProvider;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+/**
+ * Markup of tooltip content rendered in the browser from a small JSON model,
+ * similar to the template renderers of <code>Grid</code>.
+ * <p>
+ * The markup is sent to the browser once per UI, and each tooltip using it
+ * only sends the values of its properties. Compared to building the content
+ * from components, no component or state node is created on the server for
+ * the parts of the content.
+ * <p>
+ * The markup refers to the properties with <code>[[item.name]]</code> in text
+ * and attribute values. The values are inserted as text, so they can't add
+ * markup, but attributes like <code>href</code> should not get their value
+ * from untrusted input.
+ *
+ * <pre>
+ * TooltipTemplate&lt;Person&gt; template = TooltipTemplate
+ *         .&lt;Person&gt;of("&lt;b&gt;[[item.name]]&lt;/b&gt;&lt;div&gt;Age: [[item.age]]&lt;/div&gt;")
+ *         .withProperty("name", Person::getName)
+ *         .withProperty("age", Person::getAge);
+ * tooltip.setTemplateContent(template, person);
+ * </pre>
+ *
+ * @param <T> the type of the items rendered by the template
+ * @author Vaadin Ltd
+ */
+public class TooltipTemplate<T> implements Serializable {
+
+    private static final int ID_BYTES = 6;
+
+    private final String id;
+    private final String html;
+    private final Map<String, ValueProvider<T, ?>> properties = new LinkedHashMap<>();
+
+    private TooltipTemplate(String html) {
+        this.html = html;
+        this.id = hash(html);
+    }
+
+    /**
+     * Creates a template. The template should be created once for each kind
+     * of tooltip and shared by the tooltips, e.g. in a static field.
+     *
+     * @param html the markup of the template
+     * @param <T>  the type of the items rendered by the template
+     * @return the template
+     */
+    public static <T> TooltipTemplate<T> of(String html) {
+        return new TooltipTemplate<>(Objects.requireNonNull(html));
+    }
+
+    /**
+     * Adds a property of the model of the template. Strings, booleans and
+     * numbers of the types <code>Integer</code>, <code>Short</code>,
+     * <code>Byte</code>, <code>Double</code> and <code>Float</code> are sent
+     * as such, other values as their string presentation. This includes
+     * <code>Long</code> values, which JavaScript numbers can't hold exactly.
+     *
+     * @param name          the name of the property, referred to as
+     *                      <code>[[item.name]]</code> in the markup
+     * @param valueProvider the provider of the value of the property
+     * @return this template
+     */
+    public TooltipTemplate<T> withProperty(String name, ValueProvider<T, ?> valueProvider) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(valueProvider);
+        if (!name.matches("\\w+")) {
+            throw new IllegalArgumentException("The property name can only contain word characters: " + name);
+        }
+        properties.put(name, valueProvider);
+        return this;
+    }
+
+    /**
+     * Gets the markup of the template.
+     *
+     * @return the markup
+     */
+    public String getHtml() {
+        return html;
+    }
+
+    /**
+     * Gets the id of the template. It is derived from the markup, so it is the
+     * same for the same markup on every server, also after the session has
+     * been moved to another server. Only the first 12 hex digits of the hash
+     * are used, as the id is sent with every rendering.
+     *
+     * @return the id
+     */
+    String getId() {
+        return id;
+    }
+
+    private static String hash(String html) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(html.getBytes(StandardCharsets.UTF_8));
+            StringBuilder id = new StringBuilder();
+            // 48 bits keep collisions between the templates of a UI unlikely
+            for (int i = 0; i < ID_BYTES; i++) {
+                id.append(String.format("%02x", digest[i]));
+            }
+            return id.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Creates the model of the template for an item.
+     *
+     * @param item the item
+     * @return the model
+     */
+    JsonObject createModel(T item) {
+        JsonObject model = Json.createObject();
+        properties.forEach((name, valueProvider) -> {
+            Object value = valueProvider.apply(item);
+            if (value == null) {
+                model.put(name, Json.createNull());
+            } else if (value instanceof Integer || value instanceof Short || value instanceof Byte
+                    || value instanceof Double || value instanceof Float) {
+                model.put(name, ((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                model.put(name, (Boolean) value);
+            } else {
+                model.put(name, value.toString());
+            }
+        });
+        return model;
+    }
+}
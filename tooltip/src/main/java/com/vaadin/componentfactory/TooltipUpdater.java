@@ -0,0 +1,265 @@
+package com.vaadin.componentfactory;
+
+/*
+ * #%L
+ * Vaadin VCF Tooltip for Vaadin 10
+ * %%
+ * Copyright (C) 2020 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinSession;
+
+/**
+ * UI scoped updater applying changes to tooltips from background threads.
+ * <p>
+ * The changes can be queued from any thread without locking the session. The
+ * changes queued for the UI within the update interval are applied together
+ * in one {@link UI#access(Command)}, so a burst of changes causes only one
+ * push. Of repeated changes of the same kind to a tooltip, e.g. its text or
+ * open state, only the last one is applied.
+ * <p>
+ * The updater of a UI is got while holding the session lock, e.g. when
+ * creating the view, and can then be passed to background threads:
+ *
+ * <pre>
+ * TooltipUpdater updater = TooltipUpdater.get(UI.getCurrent());
+ * executor.submit(() -&gt; updater.setText(statusTooltip, service.fetchStatus()));
+ * </pre>
+ *
+ * @author Vaadin Ltd
+ */
+public final class TooltipUpdater implements Serializable {
+
+    /**
+     * Default time in milliseconds the changes are collected before applying
+     * them.
+     */
+    public static final int DEFAULT_UPDATE_INTERVAL = 100;
+
+    private static final String OPENED = "opened";
+    private static final String TEXT = "text";
+
+    private static ScheduledExecutorService serviceLessScheduler;
+
+    private final UI ui;
+    private final Map<Object, Command> pendingUpdates = new LinkedHashMap<>();
+    private boolean applyScheduled;
+    private long nextKey;
+    private volatile int updateInterval = DEFAULT_UPDATE_INTERVAL;
+
+    private TooltipUpdater(UI ui) {
+        this.ui = ui;
+    }
+
+    /**
+     * Gets the updater of the UI, creating it if needed. Must be called while
+     * holding the session lock.
+     *
+     * @param ui the UI
+     * @return the updater of the UI
+     */
+    public static TooltipUpdater get(UI ui) {
+        Objects.requireNonNull(ui);
+        TooltipUpdater updater = ComponentUtil.getData(ui, TooltipUpdater.class);
+        if (updater == null) {
+            updater = new TooltipUpdater(ui);
+            ComponentUtil.setData(ui, TooltipUpdater.class, updater);
+        }
+        return updater;
+    }
+
+    /**
+     * Sets the time the changes are collected before applying them. Default
+     * is {@value #DEFAULT_UPDATE_INTERVAL} milliseconds.
+     *
+     * @param updateInterval the interval in milliseconds, or 0 to apply the
+     *                       changes as soon as the session lock is available
+     */
+    public void setUpdateInterval(int updateInterval) {
+        if (updateInterval < 0) {
+            throw new IllegalArgumentException("The update interval cannot be negative");
+        }
+        this.updateInterval = updateInterval;
+    }
+
+    /**
+     * Gets the time the changes are collected before applying them.
+     *
+     * @return the interval in milliseconds
+     */
+    public int getUpdateInterval() {
+        return updateInterval;
+    }
+
+    /**
+     * Queues opening the tooltip, replacing an opening or closing of the
+     * tooltip queued before.
+     *
+     * @param tooltip the tooltip
+     */
+    public void open(Tooltip tooltip) {
+        queue(new SimpleImmutableEntry<>(tooltip, OPENED), tooltip::open);
+    }
+
+    /**
+     * Queues closing the tooltip, replacing an opening or closing of the
+     * tooltip queued before.
+     *
+     * @param tooltip the tooltip
+     */
+    public void close(Tooltip tooltip) {
+        queue(new SimpleImmutableEntry<>(tooltip, OPENED), tooltip::close);
+    }
+
+    /**
+     * Queues setting the text of the tooltip, replacing a text of the tooltip
+     * queued before.
+     *
+     * @param tooltip the tooltip
+     * @param text    the text
+     * @see Tooltip#setText(String)
+     */
+    public void setText(Tooltip tooltip, String text) {
+        queue(new SimpleImmutableEntry<>(tooltip, TEXT), () -> tooltip.setText(text));
+    }
+
+    /**
+     * Queues any change of the tooltip, e.g. replacing its components. The
+     * change is run while holding the session lock.
+     *
+     * @param tooltip the tooltip
+     * @param update  the change
+     */
+    public void update(Tooltip tooltip, SerializableConsumer<Tooltip> update) {
+        Objects.requireNonNull(update);
+        queue(null, () -> update.accept(tooltip));
+    }
+
+    private void queue(Object key, Command command) {
+        boolean schedule;
+        synchronized (pendingUpdates) {
+            if (key == null) {
+                key = nextKey++;
+            } else {
+                // The change is moved after the changes queued since the
+                // replaced one, keeping the order they were made in
+                pendingUpdates.remove(key);
+            }
+            pendingUpdates.put(key, command);
+            schedule = !applyScheduled;
+            applyScheduled = true;
+        }
+        if (!schedule) {
+            return;
+        }
+        int interval = updateInterval;
+        if (interval == 0) {
+            access();
+        } else {
+            getScheduler(ui).schedule(this::access, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void access() {
+        try {
+            ui.access(this::applyUpdates);
+        } catch (UIDetachedException e) {
+            // Nobody is going to see the changes
+            synchronized (pendingUpdates) {
+                pendingUpdates.clear();
+                applyScheduled = false;
+            }
+        }
+    }
+
+    private void applyUpdates() {
+        List<Command> updates;
+        synchronized (pendingUpdates) {
+            updates = new ArrayList<>(pendingUpdates.values());
+            pendingUpdates.clear();
+            applyScheduled = false;
+        }
+        updates.forEach(Command::execute);
+    }
+
+    /**
+     * Gets the scheduler thread shared by the tooltip updates of the UIs of
+     * the service of the UI. The thread is stopped when the service is
+     * destroyed, so it doesn't keep the classes of an undeployed application
+     * loaded.
+     *
+     * @param ui the UI
+     * @return the scheduler
+     */
+    static ScheduledExecutorService getScheduler(UI ui) {
+        VaadinSession session = ui.getSession();
+        VaadinService service = session == null ? null : session.getService();
+        if (service == null) {
+            return getServiceLessScheduler();
+        }
+        return service.getContext().getAttribute(Scheduler.class, () -> new Scheduler(service)).executor;
+    }
+
+    /**
+     * Gets the scheduler for UIs not served by a service, e.g. in tests.
+     */
+    private static synchronized ScheduledExecutorService getServiceLessScheduler() {
+        if (serviceLessScheduler == null) {
+            serviceLessScheduler = createScheduler();
+        }
+        return serviceLessScheduler;
+    }
+
+    private static ScheduledExecutorService createScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "vcf-tooltip-updater");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Scheduler of a service, kept in the context of the service.
+     */
+    private static final class Scheduler {
+
+        private final ScheduledExecutorService executor = createScheduler();
+
+        private Scheduler(VaadinService service) {
+            service.addServiceDestroyListener(event -> {
+                service.getContext().removeAttribute(Scheduler.class);
+                executor.shutdownNow();
+            });
+        }
+    }
+}
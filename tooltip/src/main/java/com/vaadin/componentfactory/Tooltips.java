@@ -0,0 +1,124 @@
+package com.vaadin.componentfactory;
+
+/*
+ * #%L
+ * Vaadin VCF Tooltip for Vaadin 10
+ * %%
+ * Copyright (C) 2020 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Objects;
+
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.HasElement;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+
+/**
+ * Text tooltips stored only as attributes of their target elements.
+ * <p>
+ * Setting a text writes a <code>data-vcf-tooltip</code> attribute on the
+ * target, without creating a {@link Tooltip}, a listener or a JavaScript call
+ * for it. A single tooltip element per UI shows the texts, picking up the
+ * hovered or focused target through listeners on the document. This makes
+ * hints practically free even on every cell of a dense, generated view.
+ *
+ * <pre>
+ * Tooltips.setText(saveButton, "Saves the form");
+ * Tooltips.setText(cell, "Last updated " + timestamp, TooltipPosition.RIGHT, TooltipAlignment.CENTER);
+ * </pre>
+ *
+ * @author Vaadin Ltd
+ */
+public final class Tooltips {
+
+    static final String TEXT_ATTRIBUTE = "data-vcf-tooltip";
+    static final String POSITION_ATTRIBUTE = "data-vcf-tooltip-position";
+    static final String ALIGNMENT_ATTRIBUTE = "data-vcf-tooltip-align";
+    static final String HOST_ATTRIBUTE = "data-vcf-tooltip-host";
+
+    private Tooltips() {
+    }
+
+    /**
+     * Sets the text of the tooltip of the target, shown at the top center of
+     * the target.
+     *
+     * @param target the component or element showing the tooltip
+     * @param text   the text, or <code>null</code> to remove the tooltip
+     */
+    public static void setText(HasElement target, String text) {
+        setText(target, text, TooltipPosition.TOP, TooltipAlignment.CENTER);
+    }
+
+    /**
+     * Sets the text of the tooltip of the target with a specific position and
+     * alignment.
+     *
+     * @param target    the component or element showing the tooltip
+     * @param text      the text, or <code>null</code> to remove the tooltip
+     * @param position  the position of the tooltip
+     * @param alignment the alignment of the tooltip
+     */
+    public static void setText(HasElement target, String text, TooltipPosition position,
+                               TooltipAlignment alignment) {
+        Objects.requireNonNull(position);
+        Objects.requireNonNull(alignment);
+        Element element = target.getElement();
+        if (text == null) {
+            element.removeAttribute(TEXT_ATTRIBUTE);
+            element.removeAttribute(POSITION_ATTRIBUTE);
+            element.removeAttribute(ALIGNMENT_ATTRIBUTE);
+            return;
+        }
+        element.setAttribute(TEXT_ATTRIBUTE, text);
+        // The defaults are left out, most targets don't need the attributes
+        setAttribute(element, POSITION_ATTRIBUTE,
+                position == TooltipPosition.TOP ? null : position.getPositionText());
+        setAttribute(element, ALIGNMENT_ATTRIBUTE,
+                alignment == TooltipAlignment.CENTER ? null : alignment.getAlignmentText());
+        element.getNode().runWhenAttached(Tooltips::ensureHost);
+    }
+
+    /**
+     * Gets the text of the tooltip of the target.
+     *
+     * @param target the component or element showing the tooltip
+     * @return the text, or <code>null</code> if the target has no tooltip
+     */
+    public static String getText(HasElement target) {
+        return target.getElement().getAttribute(TEXT_ATTRIBUTE);
+    }
+
+    private static void setAttribute(Element element, String attribute, String value) {
+        if (value == null) {
+            element.removeAttribute(attribute);
+        } else {
+            element.setAttribute(attribute, value);
+        }
+    }
+
+    private static void ensureHost(UI ui) {
+        if (ComponentUtil.getData(ui, HOST_ATTRIBUTE) == null) {
+            Tooltip host = new Tooltip();
+            host.setManualMode(true);
+            host.setSyncMode(TooltipSyncMode.NONE);
+            host.getElement().setAttribute(HOST_ATTRIBUTE, true);
+            ComponentUtil.setData(ui, HOST_ATTRIBUTE, host);
+            ui.add(host);
+        }
+    }
+}
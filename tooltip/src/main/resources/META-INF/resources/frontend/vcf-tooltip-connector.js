@@ -0,0 +1,496 @@
+/*
+ * Client-side helpers used by the server-side Tooltip API.
+ */
+(function () {
+  const tryCatchWrapper = function (callback) {
+    return function () {
+      try {
+        return callback.apply(this, arguments);
+      } catch (error) {
+        console.error('There seems to be an error in vcf-tooltip-connector:\n' + error.message);
+      }
+    };
+  };
+
+  // The web component is loaded lazily, operations on tooltips arriving
+  // before it has been defined are run once it is
+  const whenLoaded = function (callback) {
+    return function () {
+      const args = arguments;
+      if (customElements.get('vcf-tooltip')) {
+        return callback.apply(this, args);
+      }
+      customElements.whenDefined('vcf-tooltip').then(() => callback.apply(this, args));
+    };
+  };
+
+  // Sets the target of a tooltip, keeping the tooltips bound to each target
+  // on the target for finding them from the path of an event
+  const setTarget = function (tooltip, target) {
+    const previous = tooltip.targetElement;
+    if (previous && previous !== target && previous.__vcfBoundTooltips) {
+      previous.__vcfBoundTooltips.delete(tooltip);
+    }
+    if (target) {
+      target.__vcfBoundTooltips = target.__vcfBoundTooltips || new Set();
+      target.__vcfBoundTooltips.add(tooltip);
+    }
+    tooltip.targetElement = target;
+  };
+
+  // Forgets the tooltips bound to the target that have been removed from the
+  // document, so a long-lived target doesn't keep removed tooltips
+  const releaseDetached = function (target) {
+    const tooltips = target && target.__vcfBoundTooltips;
+    if (!tooltips) {
+      return;
+    }
+    tooltips.forEach(tooltip => {
+      if (!tooltip.isConnected) {
+        tooltips.delete(tooltip);
+      }
+    });
+    if (!tooltips.size) {
+      delete target.__vcfBoundTooltips;
+    }
+  };
+
+  // Stops waiting for the deferred target of a tooltip to come near the
+  // viewport, so a target that never does isn't kept observed
+  const clearDeferredTarget = function (tooltip) {
+    const target = tooltip.__vcfDeferredTarget;
+    if (!target) {
+      return;
+    }
+    tooltip.__vcfDeferredTarget = null;
+    const remaining = (target.__vcfDeferredTooltips || []).filter(other => other !== tooltip);
+    if (remaining.length) {
+      target.__vcfDeferredTooltips = remaining;
+    } else {
+      delete target.__vcfDeferredTooltips;
+      const observer = window.Vaadin.Flow.vcfTooltipConnector.__viewportObserver;
+      if (observer) {
+        observer.unobserve(target);
+      }
+    }
+  };
+
+  window.Vaadin = window.Vaadin || {};
+  window.Vaadin.Flow = window.Vaadin.Flow || {};
+
+  window.Vaadin.Flow.vcfTooltipConnector = {
+
+    /**
+     * Loads the vcf-tooltip web component, which is not part of the bundle
+     * loaded on startup. Called when the first tooltip is attached to a UI.
+     */
+    load: tryCatchWrapper(function () {
+      const connector = window.Vaadin.Flow.vcfTooltipConnector;
+      if (!connector.__loading) {
+        connector.__loading = customElements.get('vcf-tooltip')
+          ? Promise.resolve()
+          : import('@vaadin-component-factory/vcf-tooltip/src/vcf-tooltip.js');
+      }
+      return connector.__loading;
+    }),
+
+    /**
+     * Sets the target elements of tooltips, given as an array of alternating
+     * tooltips and targets.
+     */
+    bindTargets: tryCatchWrapper(function (pairs) {
+      for (let i = 0; i + 1 < pairs.length; i += 2) {
+        if (pairs[i]) {
+          clearDeferredTarget(pairs[i]);
+          setTarget(pairs[i], pairs[i + 1]);
+        }
+      }
+    }),
+
+    /**
+     * Releases the tooltips removed from the document from the targets they
+     * were bound to. Called for the targets that stay attached when their
+     * tooltips are detached.
+     */
+    releaseTargets: tryCatchWrapper(function (targets) {
+      targets.forEach(releaseDetached);
+    }),
+
+    /**
+     * Sets the target elements of tooltips, given as an array of alternating
+     * tooltips and targets, once the targets come near the viewport. Binding
+     * a tooltip dispatches a `vcf-tooltip-target-visible` event on it.
+     */
+    bindTargetsWhenVisible: tryCatchWrapper(function (pairs) {
+      const connector = window.Vaadin.Flow.vcfTooltipConnector;
+      if (!window.IntersectionObserver) {
+        connector.bindTargets(pairs);
+        return;
+      }
+      if (!connector.__viewportObserver) {
+        connector.__viewportObserver = new IntersectionObserver(entries => entries.forEach(entry => {
+          if (!entry.isIntersecting) {
+            return;
+          }
+          const target = entry.target;
+          connector.__viewportObserver.unobserve(target);
+          (target.__vcfDeferredTooltips || []).forEach(tooltip => {
+            // The tooltip may have been bound elsewhere meanwhile
+            if (tooltip.__vcfDeferredTarget === target) {
+              tooltip.__vcfDeferredTarget = null;
+              setTarget(tooltip, target);
+              tooltip.dispatchEvent(new CustomEvent('vcf-tooltip-target-visible'));
+            }
+          });
+          delete target.__vcfDeferredTooltips;
+        }), { rootMargin: '200px' });
+      }
+      for (let i = 0; i + 1 < pairs.length; i += 2) {
+        const tooltip = pairs[i];
+        const target = pairs[i + 1];
+        if (tooltip && target) {
+          clearDeferredTarget(tooltip);
+          tooltip.__vcfDeferredTarget = target;
+          target.__vcfDeferredTooltips = (target.__vcfDeferredTooltips || []).concat(tooltip);
+          connector.__viewportObserver.observe(target);
+        }
+      }
+    }),
+
+    /**
+     * Applies the queued operations of the tooltips of a UI: sets the targets,
+     * right away or once they are visible, then hides and shows tooltips.
+     */
+    update: whenLoaded(tryCatchWrapper(function (bindings, hidden, shown, deferred) {
+      const connector = window.Vaadin.Flow.vcfTooltipConnector;
+      connector.bindTargets(bindings);
+      connector.bindTargetsWhenVisible(deferred || []);
+      hidden.forEach(tooltip => tooltip && tooltip.hide());
+      shown.forEach(tooltip => {
+        if (!tooltip) {
+          return;
+        }
+        if (tooltip.__vcfDeferredTarget) {
+          // An opened tooltip needs its target, visible or not
+          connector.bindTargets([tooltip, tooltip.__vcfDeferredTarget]);
+        }
+        tooltip.show();
+      });
+    })),
+
+    /**
+     * Registers the targets of a TooltipManager. Entering a target dispatches
+     * a `vcf-tooltip-target-enter` event carrying the target key on the host,
+     * leaving it hides the pooled tooltip showing it.
+     */
+    registerTargets: tryCatchWrapper(function (host, keys, targets) {
+      targets.forEach((target, index) => {
+        if (!target) {
+          return;
+        }
+        window.Vaadin.Flow.vcfTooltipConnector.unregisterTargets([target]);
+        const enter = () => {
+          target.__vcfTooltipHovered = true;
+          host.dispatchEvent(new CustomEvent('vcf-tooltip-target-enter', {
+            detail: { key: keys[index] }
+          }));
+        };
+        const leave = () => {
+          target.__vcfTooltipHovered = false;
+          window.Vaadin.Flow.vcfTooltipConnector.hideFor(target);
+        };
+        target.__vcfTooltipListeners = { enter, leave };
+        target.addEventListener('mouseenter', enter);
+        target.addEventListener('focusin', enter);
+        target.addEventListener('mouseleave', leave);
+        target.addEventListener('focusout', leave);
+      });
+    }),
+
+    unregisterTargets: tryCatchWrapper(function (targets) {
+      targets.forEach(target => {
+        const listeners = target && target.__vcfTooltipListeners;
+        if (!listeners) {
+          return;
+        }
+        target.removeEventListener('mouseenter', listeners.enter);
+        target.removeEventListener('focusin', listeners.enter);
+        target.removeEventListener('mouseleave', listeners.leave);
+        target.removeEventListener('focusout', listeners.leave);
+        delete target.__vcfTooltipListeners;
+        window.Vaadin.Flow.vcfTooltipConnector.hideFor(target);
+      });
+    }),
+
+    /**
+     * Shows a pooled tooltip for the target, unless the pointer or focus has
+     * already left the target while the content was on its way.
+     */
+    showFor: whenLoaded(tryCatchWrapper(function (tooltip, target) {
+      if (!tooltip || !target || !target.__vcfTooltipHovered) {
+        return;
+      }
+      tooltip.targetElement = target;
+      tooltip.show();
+      target.__vcfTooltipShown = tooltip;
+      (tooltip.__vcfTooltipPool || []).forEach(other => {
+        if (other !== tooltip && !other.hidden) {
+          other.hide();
+        }
+      });
+    })),
+
+    /**
+     * Hides the pooled tooltip last shown for the target, if it still is.
+     */
+    hideFor: whenLoaded(tryCatchWrapper(function (target) {
+      const tooltip = target.__vcfTooltipShown;
+      delete target.__vcfTooltipShown;
+      if (tooltip && tooltip.targetElement === target) {
+        tooltip.hide();
+      }
+    })),
+
+    /**
+     * Makes the tooltip follow the hovered body cell of the grid. Hovering a
+     * cell dispatches a `vcf-tooltip-grid-hover` event carrying the item key
+     * and the column id on the tooltip, scrolling or leaving the grid hides
+     * the tooltip.
+     */
+    initGrid: tryCatchWrapper(function (grid, tooltip) {
+      if (grid.__vcfTooltipCleanup) {
+        grid.__vcfTooltipCleanup();
+      }
+      const hide = () => {
+        tooltip.__vcfGridHover = null;
+        tooltip.__vcfGridCell = null;
+        if (tooltip.hide) {
+          tooltip.hide();
+        }
+      };
+      const over = tryCatchWrapper(e => {
+        const context = grid.getEventContext(e);
+        if (context.section !== 'body' || !context.item) {
+          hide();
+          return;
+        }
+        const column = context.column && context.column._flowId || '';
+        const hover = context.item.key + '/' + column;
+        if (hover === tooltip.__vcfGridHover) {
+          return;
+        }
+        hide();
+        const path = e.composedPath();
+        tooltip.__vcfGridHover = hover;
+        tooltip.__vcfGridCell = path.find(node => node.localName === 'vaadin-grid-cell-content')
+          || path.find(node => node.localName === 'td');
+        tooltip.dispatchEvent(new CustomEvent('vcf-tooltip-grid-hover', {
+          detail: { key: context.item.key, column }
+        }));
+      });
+      const scrollTarget = grid.$ && grid.$.table || grid;
+      grid.addEventListener('mouseover', over);
+      grid.addEventListener('mouseleave', hide);
+      scrollTarget.addEventListener('scroll', hide);
+      grid.__vcfTooltipCleanup = () => {
+        grid.removeEventListener('mouseover', over);
+        grid.removeEventListener('mouseleave', hide);
+        scrollTarget.removeEventListener('scroll', hide);
+        delete grid.__vcfTooltipCleanup;
+      };
+    }),
+
+    /**
+     * Shows the grid tooltip, unless another cell has been hovered while the
+     * content was on its way.
+     */
+    showForGridCell: whenLoaded(tryCatchWrapper(function (tooltip, key, column) {
+      if (tooltip.__vcfGridHover === key + '/' + column && tooltip.__vcfGridCell) {
+        tooltip.targetElement = tooltip.__vcfGridCell;
+        tooltip.show();
+      }
+    })),
+
+    /**
+     * Defines the templates given as alternating ids and markup, then renders
+     * the templates with the given ids into the containers, using the
+     * `model` property of each container.
+     */
+    renderTemplates: tryCatchWrapper(function (definitions, templateIds, containers) {
+      const connector = window.Vaadin.Flow.vcfTooltipConnector;
+      connector.__templates = connector.__templates || {};
+      for (let i = 0; i + 1 < definitions.length; i += 2) {
+        const template = document.createElement('template');
+        template.innerHTML = definitions[i + 1];
+        connector.__templates[definitions[i]] = template;
+      }
+      containers.forEach((container, index) => {
+        const template = connector.__templates[templateIds[index]];
+        if (container && template) {
+          connector.renderTemplate(container, template);
+        }
+      });
+    }),
+
+    renderTemplate: tryCatchWrapper(function (container, template) {
+      const model = container.model || {};
+      // The values are inserted as text, so they can't add any markup
+      const fill = text => text.replace(/\[\[item\.(\w+)\]\]/g, (match, name) => {
+        const value = model[name];
+        return value === undefined || value === null ? '' : String(value);
+      });
+      const content = document.importNode(template.content, true);
+      const walker = document.createTreeWalker(content, NodeFilter.SHOW_ELEMENT | NodeFilter.SHOW_TEXT);
+      while (walker.nextNode()) {
+        const node = walker.currentNode;
+        if (node.nodeType === Node.TEXT_NODE) {
+          if (node.nodeValue.indexOf('[[') !== -1) {
+            node.nodeValue = fill(node.nodeValue);
+          }
+        } else {
+          Array.from(node.attributes).forEach(attribute => {
+            if (attribute.value.indexOf('[[') !== -1) {
+              attribute.value = fill(attribute.value);
+            }
+          });
+        }
+      }
+      while (container.firstChild) {
+        container.removeChild(container.firstChild);
+      }
+      container.appendChild(content);
+    }),
+
+    initPool: tryCatchWrapper(function (tooltips) {
+      tooltips.forEach(tooltip => tooltip.__vcfTooltipPool = tooltips);
+    })
+  };
+
+  /*
+   * Dispatches a `vcf-tooltip-hover-intent` event on a hidden tooltip having
+   * the `hover-intent-delay` attribute when the pointer or focus has stayed on
+   * its target for that many milliseconds. The listeners are shared by all the
+   * tooltips, and leaving the target before the delay has passed sends nothing.
+   * The tooltips are found from the targets on the path of the event, so the
+   * cost doesn't depend on the number of tooltips, except for the tooltips
+   * bound by id, which are looked up only when the path has elements with ids.
+   */
+  if (!window.Vaadin.Flow.__vcfTooltipHoverIntent) {
+    window.Vaadin.Flow.__vcfTooltipHoverIntent = true;
+    const timers = new Map();
+    const schedule = function (tooltip, target) {
+      if (!tooltip.hidden || timers.has(tooltip) || !tooltip.hasAttribute('hover-intent-delay')) {
+        return;
+      }
+      timers.set(tooltip, {
+        target,
+        timer: setTimeout(() => {
+          timers.delete(tooltip);
+          if (tooltip.hidden && tooltip.hasAttribute('hover-intent-delay')) {
+            tooltip.dispatchEvent(new CustomEvent('vcf-tooltip-hover-intent'));
+          }
+        }, parseInt(tooltip.getAttribute('hover-intent-delay'), 10) || 0)
+      });
+    };
+    const start = tryCatchWrapper(function (e) {
+      const byId = new Map();
+      e.composedPath().forEach(target => {
+        releaseDetached(target);
+        (target.__vcfBoundTooltips || []).forEach(tooltip => {
+          if (tooltip.targetElement === target) {
+            schedule(tooltip, target);
+          }
+        });
+        if (target.id) {
+          byId.set(target.id, target);
+        }
+      });
+      // Tooltips bound by id are set up by the web component itself, so they
+      // are looked up by the ids on the path
+      if (byId.size) {
+        document.querySelectorAll('vcf-tooltip[hover-intent-delay]').forEach(tooltip => {
+          const target = tooltip.for && byId.get(tooltip.for);
+          if (target) {
+            schedule(tooltip, target);
+          }
+        });
+      }
+    });
+    const cancel = tryCatchWrapper(function (e) {
+      timers.forEach((pending, tooltip) => {
+        if (!e.relatedTarget || !pending.target.contains(e.relatedTarget)) {
+          clearTimeout(pending.timer);
+          timers.delete(tooltip);
+        }
+      });
+    });
+    document.addEventListener('pointerover', start);
+    document.addEventListener('focusin', start);
+    document.addEventListener('pointerout', cancel);
+    document.addEventListener('focusout', cancel);
+  }
+
+  /*
+   * Shows the texts of the `data-vcf-tooltip` attributes of hovered or focused
+   * elements in the tooltip having the `data-vcf-tooltip-host` attribute. The
+   * listeners are on the document, so the targets need no listeners or calls
+   * of their own.
+   */
+  if (!window.Vaadin.Flow.__vcfTooltipAttributes) {
+    window.Vaadin.Flow.__vcfTooltipAttributes = true;
+    let current = null;
+    const hide = function (host) {
+      current = null;
+      if (host && host.hide) {
+        host.hide();
+      }
+    };
+    const enter = tryCatchWrapper(function (e) {
+      const target = e.composedPath().find(node => node.hasAttribute && node.hasAttribute('data-vcf-tooltip'));
+      if (!target || target === current) {
+        return;
+      }
+      const host = document.querySelector('vcf-tooltip[data-vcf-tooltip-host]');
+      if (!host || !customElements.get('vcf-tooltip')) {
+        return;
+      }
+      current = target;
+      host.textContent = target.getAttribute('data-vcf-tooltip');
+      host.position = target.getAttribute('data-vcf-tooltip-position') || 'top';
+      host.align = target.getAttribute('data-vcf-tooltip-align') || 'center';
+      host.targetElement = target;
+      host.show();
+    });
+    const leave = tryCatchWrapper(function (e) {
+      if (current && !(e.relatedTarget && current.contains(e.relatedTarget))) {
+        hide(document.querySelector('vcf-tooltip[data-vcf-tooltip-host]'));
+      }
+    });
+    document.addEventListener('pointerover', enter);
+    document.addEventListener('focusin', enter);
+    document.addEventListener('pointerout', leave);
+    document.addEventListener('focusout', leave);
+  }
+
+  /*
+   * Hides the other members of the group of a tooltip having the
+   * `data-vcf-tooltip-group` attribute when it is shown. The non-bubbling
+   * `hidden-changed` events of all the tooltips are caught by one listener in
+   * the capture phase.
+   */
+  if (!window.Vaadin.Flow.__vcfTooltipGroups) {
+    window.Vaadin.Flow.__vcfTooltipGroups = true;
+    document.addEventListener('hidden-changed', tryCatchWrapper(function (e) {
+      const tooltip = e.target;
+      if (tooltip.localName !== 'vcf-tooltip' || tooltip.hidden || !tooltip.hasAttribute('data-vcf-tooltip-group')) {
+        return;
+      }
+      const group = tooltip.getAttribute('data-vcf-tooltip-group');
+      document.querySelectorAll('vcf-tooltip[data-vcf-tooltip-group="' + group + '"]').forEach(other => {
+        if (other !== tooltip && !other.hidden) {
+          other.hide();
+        }
+      });
+    }), true);
+  }
+})();
@@ -0,0 +1,97 @@
+package com.vaadin.componentfactory;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.dom.DomEvent;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.nodefeature.ElementListenerMap;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+public class GridTooltipSupportTest {
+
+    private MockUI ui;
+    private Grid<String> grid;
+    private Grid.Column<String> column;
+    private GridTooltipSupport<String> support;
+
+    @Before
+    public void setUp() {
+        ui = new MockUI();
+        grid = new Grid<>();
+        grid.addColumn(item -> item);
+        column = grid.addColumn(String::length);
+        grid.setItems(Arrays.asList("first", "second"));
+        ui.add(grid);
+        support = new GridTooltipSupport<>(grid);
+    }
+
+    @Test
+    public void tooltipAddedToUi() {
+        Assert.assertEquals(ui, support.getTooltip().getUI().orElse(null));
+    }
+
+    @Test
+    public void hover_rowGenerator_contentGeneratedForItem() {
+        support.setTooltipGenerator(item -> "Row " + item);
+
+        support.showTooltip(keyOf("second"), "");
+
+        Assert.assertEquals("Row second", tooltipText());
+    }
+
+    @Test
+    public void hover_columnGenerator_overridesRowGenerator() {
+        support.setTooltipGenerator(item -> "Row " + item);
+        support.setTooltipComponentGenerator(column, item -> new Span("Length " + item.length()));
+
+        support.showTooltip(keyOf("first"), column.getElement().getProperty("_flowId"));
+
+        Assert.assertEquals("Length 5", tooltipText());
+    }
+
+    @Test
+    public void hover_unknownKey_noContent() {
+        support.setTooltipGenerator(item -> "Row " + item);
+        support.showTooltip(keyOf("first"), "");
+
+        support.showTooltip("unknown", "");
+
+        Assert.assertEquals(0, support.getTooltip().getElement().getChildCount());
+    }
+
+    @Test
+    public void hoverEvent_showsTooltip() {
+        support.setTooltipGenerator(item -> "Row " + item);
+        support.setHoverDelay(0);
+
+        JsonObject data = Json.createObject();
+        data.put("event.detail.key", keyOf("first"));
+        data.put("event.detail.column", "");
+        Element element = support.getTooltip().getElement();
+        element.getNode().getFeature(ElementListenerMap.class)
+                .fireEvent(new DomEvent(element, GridTooltipSupport.GRID_HOVER_EVENT, data));
+
+        Assert.assertEquals("Row first", tooltipText());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setHoverDelay_negative_throws() {
+        support.setHoverDelay(-1);
+    }
+
+    private String keyOf(String item) {
+        return grid.getDataCommunicator().getKeyMapper().key(item);
+    }
+
+    private String tooltipText() {
+        return support.getTooltip().getElement().getTextRecursively();
+    }
+}
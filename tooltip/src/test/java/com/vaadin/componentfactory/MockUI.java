@@ -0,0 +1,124 @@
+package com.vaadin.componentfactory;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.internal.PendingJavaScriptInvocation;
+import com.vaadin.flow.internal.ConstantPool;
+import com.vaadin.flow.internal.JsonCodec;
+import com.vaadin.flow.internal.StateTree;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.VaadinSession;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+
+/**
+ * UI with a session that is always locked by the current thread, allowing the
+ * tests to run the UI as during a request.
+ */
+public class MockUI extends UI {
+
+    private final AtomicInteger accessCount = new AtomicInteger();
+    private final ConstantPool constantPool = new ConstantPool();
+
+    public MockUI() {
+        getInternals().setSession(new AlwaysLockedVaadinSession());
+    }
+
+    /**
+     * Runs the command right away in the calling thread, one command at a
+     * time.
+     */
+    @Override
+    public Future<Void> access(Command command) {
+        synchronized (this) {
+            command.execute();
+            accessCount.incrementAndGet();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Gets the number of commands run with {@link #access(Command)}.
+     *
+     * @return the number of commands
+     */
+    public int getAccessCount() {
+        return accessCount.get();
+    }
+
+    /**
+     * Runs the tasks scheduled before the response to the client and returns
+     * the JavaScript invocations that would be sent.
+     *
+     * @return the pending JavaScript invocations
+     */
+    public List<PendingJavaScriptInvocation> dumpPendingJavaScriptInvocations() {
+        getInternals().getStateTree().runExecutionsBeforeClientResponse();
+        return getInternals().dumpPendingJavaScriptInvocations();
+    }
+
+    /**
+     * Collects the changes of the state tree as they would be written to the
+     * response, the same way as the UIDL writer does.
+     *
+     * @return the changes in JSON
+     */
+    public JsonArray collectChanges() {
+        StateTree stateTree = getInternals().getStateTree();
+        stateTree.runExecutionsBeforeClientResponse();
+        JsonArray changes = Json.createArray();
+        stateTree.collectChanges(change -> changes.set(changes.length(), change.toJson(constantPool)));
+        return changes;
+    }
+
+    /**
+     * Collects the changes of the state tree and counts the bytes of the
+     * response carrying them and the JavaScript invocations: the JSON of the
+     * changes, the expressions and the JSON of the parameters.
+     *
+     * @param invocations the JavaScript invocations, as returned by
+     *                    {@link #dumpPendingJavaScriptInvocations()}
+     * @return the size of the response in bytes
+     */
+    public int responseBytes(List<PendingJavaScriptInvocation> invocations) {
+        int bytes = 0;
+        JsonArray changes = collectChanges();
+        for (int i = 0; i < changes.length(); i++) {
+            bytes += changes.get(i).toJson().length();
+        }
+        for (PendingJavaScriptInvocation invocation : invocations) {
+            bytes += invocation.getInvocation().getExpression().length();
+            for (Object parameter : invocation.getInvocation().getParameters()) {
+                bytes += JsonCodec.encodeWithTypeInfo(parameter).toJson().length();
+            }
+        }
+        return bytes;
+    }
+
+    private static class AlwaysLockedVaadinSession extends VaadinSession {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private AlwaysLockedVaadinSession() {
+            super(null);
+            lock.lock();
+        }
+
+        @Override
+        public Lock getLockInstance() {
+            return lock;
+        }
+
+        @Override
+        public boolean hasLock() {
+            return true;
+        }
+    }
+}
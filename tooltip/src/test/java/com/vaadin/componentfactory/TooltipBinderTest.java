@@ -0,0 +1,126 @@
+package com.vaadin.componentfactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ListResourceBundle;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.internal.PendingJavaScriptInvocation;
+import com.vaadin.flow.shared.Registration;
+
+public class TooltipBinderTest {
+
+    @Test
+    public void bind_largeForm_singleRegistrationInvocation() {
+        MockUI ui = new MockUI();
+        Div form = new Div();
+        Map<String, String> texts = new HashMap<>();
+        for (int i = 0; i < 300; i++) {
+            Div row = new Div();
+            Span field = new Span("field " + i);
+            field.setId("field-" + i);
+            texts.put("field-" + i, "tooltip " + i);
+            row.add(field);
+            form.add(row);
+        }
+        ui.add(form);
+
+        new TooltipBinder().withTexts(texts).bind(form);
+
+        Assert.assertEquals(300, TooltipManager.get(ui).getTargetCount());
+        List<PendingJavaScriptInvocation> invocations = ui.dumpPendingJavaScriptInvocations();
+        Assert.assertEquals(1, invocations.stream()
+                .filter(invocation -> invocation.getInvocation().getExpression().contains("registerTargets"))
+                .count());
+    }
+
+    @Test
+    public void bind_hasTooltipAndResourceBundle_textsFound() {
+        MockUI ui = new MockUI();
+        Div form = new Div();
+        Span fromBundle = new Span();
+        fromBundle.setId("name");
+        Span withoutText = new Span();
+        withoutText.setId("other");
+        form.add(new FieldWithTooltip(), fromBundle, withoutText);
+        ui.add(form);
+
+        Registration registration = new TooltipBinder()
+                .withResourceBundle(new ListResourceBundle() {
+                    @Override
+                    protected Object[][] getContents() {
+                        return new Object[][] { { "tooltip.name", "Your name" } };
+                    }
+                }, "tooltip.")
+                .bind(form);
+        Assert.assertEquals(2, TooltipManager.get(ui).getTargetCount());
+
+        registration.remove();
+        Assert.assertEquals(0, TooltipManager.get(ui).getTargetCount());
+    }
+
+    @Test
+    public void bind_tooltipContent_notBound() {
+        MockUI ui = new MockUI();
+        Span content = new Span();
+        content.setId("content");
+        Tooltip tooltip = new Tooltip();
+        tooltip.add(content);
+        ui.add(tooltip);
+
+        new TooltipBinder().withTexts(Collections.singletonMap("content", "text")).bind(tooltip);
+
+        Assert.assertEquals(0, TooltipManager.get(ui).getTargetCount());
+    }
+
+    @Test
+    public void bind_hasTooltipWithoutText_textsUsed() {
+        MockUI ui = new MockUI();
+        Span field = new FieldWithoutTooltip();
+        field.setId("field");
+        ui.add(field);
+
+        new TooltipBinder().withTexts(Collections.singletonMap("field", "text")).bind(field);
+
+        Assert.assertEquals(1, TooltipManager.get(ui).getTargetCount());
+    }
+
+    @Test
+    public void bind_rootDetached_targetsRemoved() {
+        MockUI ui = new MockUI();
+        Div form = new Div();
+        Span field = new Span();
+        field.setId("field");
+        form.add(field);
+        ui.add(form);
+        TooltipBinder binder = new TooltipBinder().withTexts(Collections.singletonMap("field", "text"));
+        binder.bind(form);
+
+        ui.remove(form);
+        ui.add(form);
+        Assert.assertEquals(0, TooltipManager.get(ui).getTargetCount());
+
+        binder.bind(form);
+        Assert.assertEquals(1, TooltipManager.get(ui).getTargetCount());
+    }
+
+    private static class FieldWithoutTooltip extends Span implements HasTooltip {
+        @Override
+        public String getTooltipText() {
+            return null;
+        }
+    }
+
+    private static class FieldWithTooltip extends Span implements HasTooltip {
+        @Override
+        public String getTooltipText() {
+            return "Field tooltip";
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.vaadin.componentfactory;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.internal.PendingJavaScriptInvocation;
+import com.vaadin.flow.dom.DomEvent;
+import com.vaadin.flow.internal.nodefeature.ElementListenerMap;
+
+import elemental.json.Json;
+
+public class TooltipBindingModeTest {
+
+    @Test
+    public void viewport_targetsBoundWhenVisible() {
+        MockUI ui = new MockUI();
+        for (int i = 0; i < 3; i++) {
+            Span target = new Span("target " + i);
+            Tooltip tooltip = new Tooltip();
+            tooltip.setBindingMode(TooltipBindingMode.VIEWPORT);
+            tooltip.attachToComponent(target);
+            ui.add(target, tooltip);
+        }
+        Span target = new Span("immediate");
+        ui.add(target, new Tooltip(target));
+
+        List<PendingJavaScriptInvocation> invocations = ui.dumpPendingJavaScriptInvocations();
+        Assert.assertEquals(1, invocations.size());
+        Assert.assertEquals("window.Vaadin.Flow.vcfTooltipConnector.load();"
+                + "window.Vaadin.Flow.vcfTooltipConnector.update([$0,$1],[],[],[$2,$3,$4,$5,$6,$7]);",
+                invocations.get(0).getInvocation().getExpression());
+    }
+
+    @Test
+    public void viewport_detachedTarget_unboundRightAway() {
+        MockUI ui = new MockUI();
+        Span target = new Span("target");
+        Tooltip tooltip = new Tooltip();
+        tooltip.setBindingMode(TooltipBindingMode.VIEWPORT);
+        ui.add(target, tooltip);
+        tooltip.attachToComponent(target);
+        ui.dumpPendingJavaScriptInvocations();
+
+        ui.remove(target);
+        Assert.assertEquals("window.Vaadin.Flow.vcfTooltipConnector.update([$0,$1],[],[]);",
+                ui.dumpPendingJavaScriptInvocations().get(0).getInvocation().getExpression());
+    }
+
+    @Test
+    public void viewport_providedContentCreatedWhenVisible() {
+        MockUI ui = new MockUI();
+        Tooltip tooltip = new Tooltip();
+        tooltip.setContentProvider(() -> new Span("content"));
+        tooltip.setBindingMode(TooltipBindingMode.VIEWPORT);
+        ui.add(tooltip);
+        Assert.assertEquals(0, tooltip.getElement().getChildCount());
+
+        tooltip.getElement().getNode().getFeature(ElementListenerMap.class)
+                .fireEvent(new DomEvent(tooltip.getElement(), "vcf-tooltip-target-visible", Json.createObject()));
+        Assert.assertEquals(1, tooltip.getElement().getChildCount());
+    }
+
+    @Test
+    public void addTargetVisibleListener_eventFired() {
+        AtomicInteger events = new AtomicInteger();
+        Tooltip tooltip = new Tooltip();
+        tooltip.setBindingMode(TooltipBindingMode.VIEWPORT);
+        tooltip.addTargetVisibleListener(event -> events.incrementAndGet());
+
+        tooltip.getElement().getNode().getFeature(ElementListenerMap.class)
+                .fireEvent(new DomEvent(tooltip.getElement(), "vcf-tooltip-target-visible", Json.createObject()));
+        Assert.assertEquals(1, events.get());
+    }
+}
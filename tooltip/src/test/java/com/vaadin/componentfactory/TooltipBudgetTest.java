@@ -0,0 +1,159 @@
+package com.vaadin.componentfactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.sun.management.ThreadMXBean;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.internal.PendingJavaScriptInvocation;
+
+/**
+ * Budgets for the cost of the public operations of {@link Tooltip} on an
+ * attached tooltip: the state nodes created, the JavaScript invocations and
+ * the bytes of the response, and the bytes allocated on the server. The
+ * budgets are roughly one and a half times the measured costs, so a change
+ * making an operation considerably more expensive fails the build.
+ */
+public class TooltipBudgetTest {
+
+    @Test
+    public void attachToComponent() {
+        Cost cost = measure(fixture -> fixture.tooltip.attachToComponent(fixture.target));
+        cost.assertWithin(0, 1, 110, 9500);
+    }
+
+    @Test
+    public void open() {
+        Cost cost = measure(fixture -> fixture.tooltip.open());
+        cost.assertWithin(0, 1, 100, 7000);
+    }
+
+    @Test
+    public void close() {
+        Cost cost = measure(fixture -> {
+            fixture.tooltip.open();
+            fixture.respond();
+        }, fixture -> fixture.tooltip.close());
+        cost.assertWithin(0, 1, 100, 7000);
+    }
+
+    @Test
+    public void setPosition() {
+        Cost cost = measure(fixture -> fixture.tooltip.setPosition(TooltipPosition.RIGHT));
+        cost.assertWithin(0, 0, 100, 2500);
+    }
+
+    @Test
+    public void setAlignment() {
+        Cost cost = measure(fixture -> fixture.tooltip.setAlignment(TooltipAlignment.LEFT));
+        cost.assertWithin(0, 0, 100, 2500);
+    }
+
+    @Test
+    public void setEnabled() {
+        Cost cost = measure(fixture -> fixture.tooltip.setEnabled(false));
+        cost.assertWithin(0, 1, 180, 8500);
+    }
+
+    private static Cost measure(Consumer<Fixture> operation) {
+        return measure(fixture -> {
+        }, operation);
+    }
+
+    /**
+     * Measures the operation on freshly attached tooltips several times,
+     * keeping the lowest allocation to leave out the warm-up of the JVM.
+     */
+    private static Cost measure(Consumer<Fixture> preparation, Consumer<Fixture> operation) {
+        Cost cost = null;
+        for (int i = 0; i < 10; i++) {
+            Fixture fixture = new Fixture();
+            preparation.accept(fixture);
+            int nodesBefore = fixture.countNodes();
+
+            long allocatedBefore = allocatedBytes();
+            operation.accept(fixture);
+            List<PendingJavaScriptInvocation> invocations = fixture.ui.dumpPendingJavaScriptInvocations();
+            long allocated = allocatedBytes() - allocatedBefore;
+
+            Cost measured = new Cost(fixture.countNodes() - nodesBefore, invocations.size(),
+                    fixture.ui.responseBytes(invocations), allocated);
+            if (cost == null || measured.allocatedBytes < cost.allocatedBytes) {
+                cost = measured;
+            }
+        }
+        return cost;
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = null;
+        try {
+            // The allocation counters are specific to HotSpot based JDKs
+            threads = ManagementFactory.getPlatformMXBean(ThreadMXBean.class);
+        } catch (IllegalArgumentException e) {
+            Assume.assumeNoException(e);
+        }
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * An attached tooltip and target whose initial state has already been
+     * sent to the client.
+     */
+    private static class Fixture {
+
+        private final MockUI ui = new MockUI();
+        private final Span target = new Span("target");
+        private final Tooltip tooltip = new Tooltip();
+
+        Fixture() {
+            ui.add(target, tooltip);
+            respond();
+        }
+
+        void respond() {
+            ui.responseBytes(ui.dumpPendingJavaScriptInvocations());
+        }
+
+        int countNodes() {
+            AtomicInteger count = new AtomicInteger();
+            ui.getElement().getNode().visitNodeTree(node -> count.incrementAndGet());
+            return count.get();
+        }
+    }
+
+    private static class Cost {
+
+        private final int nodes;
+        private final int invocations;
+        private final int responseBytes;
+        private final long allocatedBytes;
+
+        Cost(int nodes, int invocations, int responseBytes, long allocatedBytes) {
+            this.nodes = nodes;
+            this.invocations = invocations;
+            this.responseBytes = responseBytes;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        void assertWithin(int maxNodes, int maxInvocations, int maxResponseBytes, long maxAllocatedBytes) {
+            String message = toString();
+            Assert.assertTrue(message, nodes <= maxNodes);
+            Assert.assertTrue(message, invocations <= maxInvocations);
+            Assert.assertTrue(message, responseBytes <= maxResponseBytes);
+            Assert.assertTrue(message, allocatedBytes <= maxAllocatedBytes);
+        }
+
+        @Override
+        public String toString() {
+            return nodes + " state nodes, " + invocations + " invocations, " + responseBytes
+                    + " response bytes, " + allocatedBytes + " allocated bytes";
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.vaadin.componentfactory;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.html.Span;
+
+public class TooltipContentCacheTest {
+
+    @Test
+    public void get_sameKey_computedOnce() {
+        TooltipContentCache cache = new TooltipContentCache();
+        AtomicInteger calls = new AtomicInteger();
+
+        Assert.assertEquals("value", cache.get("key", () -> "value" + (calls.getAndIncrement() == 0 ? "" : "!")));
+        Assert.assertEquals("value", cache.get("key", () -> "value" + (calls.getAndIncrement() == 0 ? "" : "!")));
+
+        Assert.assertEquals(1, calls.get());
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void get_maximumSizeExceeded_leastRecentlyUsedEvicted() {
+        TooltipContentCache cache = new TooltipContentCache(2, null);
+        cache.get("a", () -> "a");
+        cache.get("b", () -> "b");
+        cache.get("a", () -> "a");
+        cache.get("c", () -> "c");
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertEquals("a", cache.get("a", () -> "computed"));
+        Assert.assertEquals("computed", cache.get("b", () -> "computed"));
+    }
+
+    @Test
+    public void get_expired_computedAgain() {
+        AtomicLong time = new AtomicLong();
+        TooltipContentCache cache = new TooltipContentCache(10, Duration.ofSeconds(1));
+        cache.setClock(time::get);
+        cache.get("key", () -> "old");
+
+        time.set(999);
+        Assert.assertEquals("old", cache.get("key", () -> "new"));
+        time.set(1000);
+        Assert.assertEquals("new", cache.get("key", () -> "new"));
+        Assert.assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void contentProvider_cachedValueRendered() {
+        TooltipContentCache cache = new TooltipContentCache();
+        AtomicInteger calls = new AtomicInteger();
+        Tooltip first = new Tooltip();
+        Tooltip second = new Tooltip();
+        first.setContentProvider(cache, "key", () -> "value " + calls.incrementAndGet(), Span::new);
+        second.setContentProvider(cache, "key", () -> "value " + calls.incrementAndGet(), Span::new);
+
+        first.getElement().setProperty("hidden", false);
+        second.getElement().setProperty("hidden", false);
+
+        Assert.assertEquals(1, calls.get());
+        Assert.assertEquals("value 1", second.getElement().getTextRecursively());
+    }
+}
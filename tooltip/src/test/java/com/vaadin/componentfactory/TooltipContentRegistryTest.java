@@ -0,0 +1,52 @@
+package com.vaadin.componentfactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TooltipContentRegistryTest {
+
+    @Test
+    public void registerHtml_sanitized() {
+        TooltipContentRegistry registry = new TooltipContentRegistry();
+        SharedTooltipContent content = registry.registerHtml("help",
+                "<h5 onclick=\"alert(1)\">Email</h5><script>alert(2)</script><p>Used for <b>resets</b></p>");
+
+        Assert.assertSame(content, registry.get("help"));
+        Assert.assertNull(content.getText());
+        Assert.assertFalse(content.getHtml().contains("script"));
+        Assert.assertFalse(content.getHtml().contains("onclick"));
+        Assert.assertTrue(content.getHtml().contains("<h5>Email</h5>"));
+        Assert.assertTrue(content.getHtml().contains("<b>resets</b>"));
+    }
+
+    @Test
+    public void setSharedContent_tooltipsOfManySessions_sameInstance() {
+        TooltipContentRegistry registry = new TooltipContentRegistry();
+        registry.registerHtml("help", "<p>Some help</p>");
+        Tooltip first = new Tooltip();
+        Tooltip second = new Tooltip();
+        new MockUI().add(first);
+        new MockUI().add(second);
+
+        first.setSharedContent(registry.get("help"));
+        second.setSharedContent(registry.get("help"));
+
+        Assert.assertSame(first.getElement().getChild(0).getProperty("innerHTML"),
+                second.getElement().getChild(0).getProperty("innerHTML"));
+    }
+
+    @Test
+    public void setSharedContent_text_textNode() {
+        TooltipContentRegistry registry = new TooltipContentRegistry();
+        Tooltip tooltip = new Tooltip();
+        tooltip.setSharedContent(registry.registerText("save", "Saves the form"));
+
+        Assert.assertEquals(1, tooltip.getElement().getChildCount());
+        Assert.assertTrue(tooltip.getElement().getChild(0).isTextNode());
+        Assert.assertEquals("Saves the form", tooltip.getElement().getText());
+
+        registry.unregister("save");
+        Assert.assertNull(registry.get("save"));
+        Assert.assertEquals(0, registry.size());
+    }
+}
@@ -0,0 +1,42 @@
+package com.vaadin.componentfactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TooltipGroupTest {
+
+    @Test
+    public void add_manyMembers_onlyAttributes() {
+        MockUI ui = new MockUI();
+        TooltipGroup group = new TooltipGroup();
+        for (int i = 0; i < 500; i++) {
+            Tooltip tooltip = new Tooltip();
+            ui.add(tooltip);
+            group.add(tooltip);
+            Assert.assertTrue(group.contains(tooltip));
+        }
+        ui.dumpPendingJavaScriptInvocations();
+
+        Tooltip opened = (Tooltip) ui.getChildren().skip(250).findFirst().get();
+        opened.open();
+        // Only showing the opened member, the others are hidden in the browser
+        Assert.assertEquals("window.Vaadin.Flow.vcfTooltipConnector.update([],[],[$0]);",
+                ui.dumpPendingJavaScriptInvocations().get(0).getInvocation().getExpression());
+    }
+
+    @Test
+    public void add_memberOfAnotherGroup_moved() {
+        TooltipGroup first = new TooltipGroup();
+        TooltipGroup second = new TooltipGroup();
+        Tooltip tooltip = new Tooltip();
+        first.add(tooltip);
+        second.add(tooltip);
+        Assert.assertFalse(first.contains(tooltip));
+        Assert.assertTrue(second.contains(tooltip));
+
+        first.remove(tooltip);
+        Assert.assertTrue(second.contains(tooltip));
+        second.remove(tooltip);
+        Assert.assertFalse(tooltip.getElement().hasAttribute(TooltipGroup.GROUP_ATTRIBUTE));
+    }
+}
@@ -0,0 +1,79 @@
+package com.vaadin.componentfactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.internal.StateNode;
+
+public class TooltipLiveTextTest {
+
+    @Test
+    public void closed_updatesDroppedUntilOpened() throws InterruptedException {
+        MockUI ui = new MockUI();
+        Tooltip tooltip = new Tooltip();
+        tooltip.setText("initial");
+        ui.add(tooltip);
+        setHidden(tooltip, true);
+        TooltipLiveText live = TooltipLiveText.bind(tooltip);
+
+        for (int i = 0; i < 100; i++) {
+            live.setText("value " + i);
+        }
+        Thread.sleep(50);
+        Assert.assertEquals(0, ui.getAccessCount());
+        Assert.assertEquals("initial", tooltip.getElement().getText());
+
+        setHidden(tooltip, false);
+        Assert.assertEquals("value 99", tooltip.getElement().getText());
+    }
+
+    @Test
+    public void opened_updatesThrottledAndPatchedInPlace() throws InterruptedException {
+        MockUI ui = new MockUI();
+        Tooltip tooltip = new Tooltip();
+        tooltip.setText("initial");
+        ui.add(tooltip);
+        StateNode textNode = tooltip.getElement().getChild(0).getNode();
+        setHidden(tooltip, false);
+        TooltipLiveText live = TooltipLiveText.bind(tooltip);
+        live.setMinUpdateInterval(100);
+
+        for (int i = 0; i < 1000; i++) {
+            live.setText("value " + i);
+        }
+        awaitText(tooltip, "value 999");
+
+        Assert.assertTrue(ui.getAccessCount() <= 2);
+        Assert.assertSame(textNode, tooltip.getElement().getChild(0).getNode());
+    }
+
+    @Test
+    public void unbind_updatesIgnored() throws InterruptedException {
+        MockUI ui = new MockUI();
+        Tooltip tooltip = new Tooltip();
+        ui.add(tooltip);
+        setHidden(tooltip, false);
+        TooltipLiveText live = TooltipLiveText.bind(tooltip);
+        live.unbind();
+
+        live.setText("ignored");
+        Thread.sleep(50);
+        Assert.assertEquals(0, ui.getAccessCount());
+    }
+
+    private static void awaitText(Tooltip tooltip, String text) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            synchronized (tooltip.getUI().get()) {
+                if (text.equals(tooltip.getElement().getText())) {
+                    return;
+                }
+            }
+            Thread.sleep(10);
+        }
+        Assert.fail("The text was not updated");
+    }
+
+    private static void setHidden(Tooltip tooltip, boolean hidden) {
+        tooltip.getElement().setProperty("hidden", hidden);
+    }
+}
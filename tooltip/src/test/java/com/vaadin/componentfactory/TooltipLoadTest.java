@@ -0,0 +1,143 @@
+package com.vaadin.componentfactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.internal.PendingJavaScriptInvocation;
+
+/**
+ * Headless load test creating many UIs with many tooltips and driving them as
+ * a stream of requests would, without a browser or network. Reports the
+ * throughput, the JavaScript invocations and the response sizes generated and
+ * the heap used per UI.
+ * <p>
+ * Excluded from the default build, run with
+ * <code>mvn test -Pload-test -Dload.uis=200 -Dload.tooltips=500 -Dload.rounds=10</code>.
+ */
+public class TooltipLoadTest {
+
+    private static final int UIS = Integer.getInteger("load.uis", 100);
+    private static final int TOOLTIPS = Integer.getInteger("load.tooltips", 200);
+    private static final int ROUNDS = Integer.getInteger("load.rounds", 10);
+
+    @Test
+    public void manyUIsWithManyTooltips() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long heapBefore = usedHeap(memory);
+
+        long start = System.nanoTime();
+        List<LoadedUI> uis = new ArrayList<>();
+        Response initialResponse = new Response();
+        for (int i = 0; i < UIS; i++) {
+            LoadedUI ui = new LoadedUI();
+            initialResponse.add(ui.respond());
+            uis.add(ui);
+        }
+        long attachNanos = System.nanoTime() - start;
+        long heapPerUI = (usedHeap(memory) - heapBefore) / UIS;
+
+        start = System.nanoTime();
+        Response roundResponse = new Response();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (LoadedUI ui : uis) {
+                ui.update(round);
+                roundResponse.add(ui.respond());
+            }
+        }
+        long roundNanos = System.nanoTime() - start;
+        long operations = (long) UIS * TOOLTIPS * ROUNDS * 3;
+
+        System.out.printf("Tooltip load test: %d UIs x %d tooltips, %d rounds%n", UIS, TOOLTIPS, ROUNDS);
+        System.out.printf("  attach:  %.1f ms per UI, %.1f invocations and %d bytes per response%n",
+                attachNanos / 1e6 / UIS, initialResponse.invocationsPerResponse(),
+                initialResponse.bytesPerResponse());
+        System.out.printf("  updates: %.0f operations/s, %.1f invocations and %d bytes per response%n",
+                operations / (roundNanos / 1e9), roundResponse.invocationsPerResponse(),
+                roundResponse.bytesPerResponse());
+        System.out.printf("  heap:    %d KB per UI, %d bytes per tooltip%n", heapPerUI / 1024,
+                heapPerUI / TOOLTIPS);
+
+        // The operations of all the tooltips of a UI are batched per response
+        Assert.assertTrue(initialResponse.invocationsPerResponse() <= 1);
+        Assert.assertTrue(roundResponse.invocationsPerResponse() <= 1);
+        Assert.assertEquals(UIS, uis.size());
+    }
+
+    private static long usedHeap(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * A UI with tooltips attached to targets, answering the requests of a
+     * client.
+     */
+    private static class LoadedUI {
+
+        private final MockUI ui = new MockUI();
+        private final List<Tooltip> tooltips = new ArrayList<>();
+
+        LoadedUI() {
+            for (int i = 0; i < TOOLTIPS; i++) {
+                Span target = new Span("Target " + i);
+                Tooltip tooltip = new Tooltip(target, "Tooltip " + i);
+                ui.add(target, tooltip);
+                tooltips.add(tooltip);
+            }
+        }
+
+        /**
+         * Changes the content of all the tooltips, then opens and closes each
+         * of them, as a client hovering over the targets would.
+         */
+        void update(int round) {
+            for (Tooltip tooltip : tooltips) {
+                tooltip.setText("Round " + round);
+                tooltip.open();
+                tooltip.close();
+            }
+        }
+
+        /**
+         * Collects the changes and the JavaScript invocations that would be
+         * sent in the response.
+         */
+        Response respond() {
+            Response response = new Response();
+            List<PendingJavaScriptInvocation> invocations = ui.dumpPendingJavaScriptInvocations();
+            response.bytes = ui.responseBytes(invocations);
+            response.invocations = invocations.size();
+            response.responses = 1;
+            return response;
+        }
+    }
+
+    private static class Response {
+
+        private long responses;
+        private long invocations;
+        private long bytes;
+
+        void add(Response response) {
+            responses += response.responses;
+            invocations += response.invocations;
+            bytes += response.bytes;
+        }
+
+        double invocationsPerResponse() {
+            return (double) invocations / responses;
+        }
+
+        long bytesPerResponse() {
+            return bytes / responses;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.vaadin.componentfactory;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.internal.PendingJavaScriptInvocation;
+import com.vaadin.flow.dom.DomEvent;
+import com.vaadin.flow.internal.nodefeature.ElementListenerMap;
+import com.vaadin.flow.shared.Registration;
+
+import elemental.json.Json;
+
+public class TooltipManagerTest {
+
+    @Test
+    public void register_manyTargets_poolSizeConstant() {
+        MockUI ui = new MockUI();
+        TooltipManager manager = TooltipManager.get(ui);
+        for (int i = 0; i < 100; i++) {
+            Span target = new Span("target " + i);
+            ui.add(target);
+            manager.register(target, "tooltip " + i);
+        }
+
+        Assert.assertSame(manager, TooltipManager.get(ui));
+        Assert.assertEquals(100, manager.getTargetCount());
+        Assert.assertEquals(TooltipManager.DEFAULT_POOL_SIZE,
+                ui.getChildren().filter(Tooltip.class::isInstance).count());
+    }
+
+    @Test
+    public void register_manyTargets_singleRegistrationInvocation() {
+        MockUI ui = new MockUI();
+        TooltipManager manager = TooltipManager.get(ui);
+        for (int i = 0; i < 100; i++) {
+            Span target = new Span("target " + i);
+            ui.add(target);
+            manager.register(target, "tooltip " + i);
+        }
+
+        List<PendingJavaScriptInvocation> invocations = ui.dumpPendingJavaScriptInvocations();
+        Assert.assertEquals(1, invocations.stream()
+                .filter(invocation -> invocation.getInvocation().getExpression().contains("registerTargets"))
+                .count());
+    }
+
+    @Test
+    public void unregister_targetRemoved() {
+        MockUI ui = new MockUI();
+        TooltipManager manager = TooltipManager.get(ui);
+        Span target = new Span("target");
+        ui.add(target);
+        Registration registration = manager.register(target, "tooltip");
+        ui.dumpPendingJavaScriptInvocations();
+
+        registration.remove();
+        Assert.assertEquals(0, manager.getTargetCount());
+        Assert.assertTrue(ui.dumpPendingJavaScriptInvocations().stream()
+                .anyMatch(invocation -> invocation.getInvocation().getExpression().contains("unregisterTargets")));
+    }
+
+    @Test
+    public void register_template_renderedBeforeShown() {
+        MockUI ui = new MockUI();
+        TooltipManager manager = TooltipManager.get(ui);
+        Span target = new Span("target");
+        ui.add(target);
+        manager.register(target, TooltipTemplate.<String>of("[[item.text]]").withProperty("text", text -> text),
+                "tooltip");
+        ui.dumpPendingJavaScriptInvocations();
+
+        Tooltip host = (Tooltip) ui.getChildren().filter(Tooltip.class::isInstance).findFirst().get();
+        host.getElement().getNode().getFeature(ElementListenerMap.class).fireEvent(new DomEvent(host.getElement(),
+                TooltipManager.TARGET_ENTER_EVENT, Json.parse("{\"event.detail.key\":\"0\"}")));
+
+        List<PendingJavaScriptInvocation> invocations = ui.dumpPendingJavaScriptInvocations();
+        Assert.assertEquals(2, invocations.size());
+        Assert.assertTrue(invocations.get(0).getInvocation().getExpression().contains("renderTemplates"));
+        Assert.assertTrue(invocations.get(1).getInvocation().getExpression().contains("showFor"));
+    }
+
+    @Test
+    public void targetDetached_released() {
+        MockUI ui = new MockUI();
+        TooltipManager manager = TooltipManager.get(ui);
+        Span target = new Span("target");
+        ui.add(target);
+        manager.register(target, "tooltip");
+
+        ui.remove(target);
+        Assert.assertEquals(0, manager.getTargetCount());
+
+        ui.add(target);
+        Assert.assertEquals(1, manager.getTargetCount());
+    }
+
+    @Test
+    public void targetRemovedForGood_collected() throws InterruptedException {
+        MockUI ui = new MockUI();
+        TooltipManager manager = TooltipManager.get(ui);
+        Span target = new Span("target");
+        ui.add(target);
+        manager.register(target, "tooltip");
+        ui.dumpPendingJavaScriptInvocations();
+
+        ui.remove(target);
+        ui.getInternals().getStateTree().collectChanges(change -> {
+        });
+        WeakReference<Span> reference = new WeakReference<>(target);
+        target = null;
+
+        for (int i = 0; i < 20 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull(reference.get());
+    }
+}
@@ -0,0 +1,198 @@
+package com.vaadin.componentfactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.ref.WeakReference;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.internal.PendingJavaScriptInvocation;
+
+public class TooltipTargetTest {
+
+    // The full churn of 100 000 cycles is run with the load-test profile
+    private static final int CYCLES = Integer.getInteger("load.cycles", 1000);
+
+    @Test
+    public void targetReattached_boundAgain() {
+        MockUI ui = new MockUI();
+        Tooltip tooltip = new Tooltip();
+        Span target = new Span("target");
+        ui.add(tooltip, target);
+        tooltip.attachToComponent(target);
+        assertBoundTo(target, ui.dumpPendingJavaScriptInvocations());
+
+        ui.remove(target);
+        assertBoundTo(null, ui.dumpPendingJavaScriptInvocations());
+
+        ui.add(target);
+        assertBoundTo(target, ui.dumpPendingJavaScriptInvocations());
+    }
+
+    @Test
+    public void tooltipReattached_boundAgain() {
+        MockUI ui = new MockUI();
+        Tooltip tooltip = new Tooltip();
+        Span target = new Span("target");
+        ui.add(target);
+        tooltip.attachToComponent(target);
+        Assert.assertTrue(ui.dumpPendingJavaScriptInvocations().isEmpty());
+
+        ui.add(tooltip);
+        assertBoundTo(target, ui.dumpPendingJavaScriptInvocations());
+
+        ui.remove(tooltip);
+        ui.dumpPendingJavaScriptInvocations();
+        ui.add(tooltip);
+        assertBoundTo(target, ui.dumpPendingJavaScriptInvocations());
+    }
+
+    @Test
+    public void tooltipRemovedTargetStays_releasedFromTarget() {
+        MockUI ui = new MockUI();
+        Tooltip tooltip = new Tooltip();
+        Span target = new Span("target");
+        ui.add(tooltip, target);
+        tooltip.attachToComponent(target);
+        ui.dumpPendingJavaScriptInvocations();
+
+        ui.remove(tooltip);
+        List<PendingJavaScriptInvocation> invocations = ui.dumpPendingJavaScriptInvocations();
+        Assert.assertEquals(1, invocations.size());
+        Assert.assertTrue(invocations.get(0).getInvocation().getExpression().contains("releaseTargets"));
+        Assert.assertEquals(target.getElement(), invocations.get(0).getInvocation().getParameters().get(0));
+    }
+
+    @Test
+    public void detachedTargetMovedInSameRoundTrip_boundOnce() {
+        MockUI ui = new MockUI();
+        Tooltip tooltip = new Tooltip();
+        Span target = new Span("target");
+        ui.add(tooltip, target);
+        tooltip.attachToComponent(target);
+        ui.dumpPendingJavaScriptInvocations();
+
+        ui.remove(target);
+        ui.addComponentAsFirst(target);
+        assertBoundTo(target, ui.dumpPendingJavaScriptInvocations());
+    }
+
+    @Test
+    public void targetChurn_removedTargetsCollected() throws InterruptedException {
+        MockUI ui = new MockUI();
+        Tooltip tooltip = new Tooltip();
+        ui.add(tooltip);
+        Span first = new Span("first");
+        WeakReference<Span> firstReference = new WeakReference<>(first);
+        tooltip.attachToComponent(first);
+        first = null;
+
+        for (int i = 0; i < CYCLES; i++) {
+            Span target = new Span();
+            ui.add(target);
+            tooltip.attachToComponent(target);
+            ui.remove(target);
+            if (i % 1000 == 0) {
+                respond(ui);
+            }
+        }
+        respond(ui);
+
+        assertCollected(firstReference);
+    }
+
+    @Test
+    public void targetRemovedForGood_tooltipStays_targetCollected() throws InterruptedException {
+        MockUI ui = new MockUI();
+        Tooltip tooltip = new Tooltip();
+        Span target = new Span("target");
+        ui.add(tooltip, target);
+        tooltip.attachToComponent(target);
+        respond(ui);
+        WeakReference<Span> reference = new WeakReference<>(target);
+
+        ui.remove(target);
+        target = null;
+        respond(ui);
+
+        assertCollected(reference);
+        Assert.assertTrue(tooltip.getUI().isPresent());
+    }
+
+    @Test
+    public void serialized_targetFollowedAfterDeserialization() throws Exception {
+        MockUI ui = new MockUI();
+        Tooltip tooltip = new Tooltip();
+        Span target = new Span("target");
+        ui.add(tooltip, target);
+        tooltip.attachToComponent(target);
+        respond(ui);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(ui);
+        }
+        MockUI copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (MockUI) in.readObject();
+        }
+        Span copiedTarget = (Span) copy.getChildren().filter(Span.class::isInstance).findFirst().get();
+
+        copy.remove(copiedTarget);
+        assertBoundTo(null, copy.dumpPendingJavaScriptInvocations());
+        copy.add(copiedTarget);
+        assertBoundTo(copiedTarget, copy.dumpPendingJavaScriptInvocations());
+    }
+
+    @Test
+    public void tooltipChurn_removedTooltipsCollected() throws InterruptedException {
+        MockUI ui = new MockUI();
+        Span target = new Span("target");
+        ui.add(target);
+        Tooltip first = new Tooltip();
+        WeakReference<Tooltip> firstReference = new WeakReference<>(first);
+        ui.add(first);
+        first.attachToComponent(target);
+        ui.remove(first);
+        first = null;
+
+        for (int i = 0; i < CYCLES; i++) {
+            Tooltip tooltip = new Tooltip();
+            ui.add(tooltip);
+            tooltip.attachToComponent(target);
+            ui.remove(tooltip);
+            if (i % 1000 == 0) {
+                respond(ui);
+            }
+        }
+        respond(ui);
+
+        assertCollected(firstReference);
+    }
+
+    private static void assertBoundTo(Span target, List<PendingJavaScriptInvocation> invocations) {
+        Assert.assertEquals(1, invocations.size());
+        List<Object> parameters = invocations.get(0).getInvocation().getParameters();
+        Assert.assertEquals(2, parameters.size());
+        Assert.assertEquals(target == null ? null : target.getElement(), parameters.get(1));
+    }
+
+    private static void respond(MockUI ui) {
+        ui.dumpPendingJavaScriptInvocations();
+        ui.getInternals().getStateTree().collectChanges(change -> {
+        });
+    }
+
+    private static void assertCollected(WeakReference<?> reference) throws InterruptedException {
+        for (int i = 0; i < 20 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull(reference.get());
+    }
+}
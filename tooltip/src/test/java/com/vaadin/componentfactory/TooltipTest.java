@@ -1,5 +1,532 @@
 package com.vaadin.componentfactory;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.html.H5;
+import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.internal.PendingJavaScriptInvocation;
+import com.vaadin.flow.dom.DomEvent;
+import com.vaadin.flow.internal.nodefeature.ElementListenerMap;
+import com.vaadin.flow.internal.nodefeature.ElementPropertyMap;
+import com.vaadin.flow.internal.nodefeature.PropertyChangeDeniedException;
+import com.vaadin.flow.shared.Registration;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
 public class TooltipTest {
 
-}
\ No newline at end of file
+    @Test
+    public void contentProvider_contentCreatedOnFirstOpen() {
+        AtomicInteger calls = new AtomicInteger();
+        Tooltip tooltip = new Tooltip();
+        tooltip.setContentProvider(() -> {
+            calls.incrementAndGet();
+            return new Span("content");
+        });
+        Assert.assertEquals(0, tooltip.getChildren().count());
+
+        setHidden(tooltip, true);
+        Assert.assertEquals(0, calls.get());
+
+        setHidden(tooltip, false);
+        Assert.assertEquals(1, calls.get());
+        Assert.assertEquals(1, tooltip.getChildren().count());
+
+        setHidden(tooltip, true);
+        setHidden(tooltip, false);
+        Assert.assertEquals(1, calls.get());
+        Assert.assertEquals(1, tooltip.getChildren().count());
+    }
+
+    @Test
+    public void contentProvider_detachOnClose_contentRecreated() {
+        AtomicInteger calls = new AtomicInteger();
+        Tooltip tooltip = new Tooltip();
+        tooltip.setContentDetachPolicy(TooltipContentDetachPolicy.ON_CLOSE);
+        tooltip.setContentProvider(() -> {
+            calls.incrementAndGet();
+            return new Span("content");
+        });
+
+        setHidden(tooltip, false);
+        setHidden(tooltip, true);
+        Assert.assertEquals(0, tooltip.getChildren().count());
+
+        setHidden(tooltip, false);
+        Assert.assertEquals(2, calls.get());
+        Assert.assertEquals(1, tooltip.getChildren().count());
+    }
+
+    @Test
+    public void contentProvider_removed_contentRemoved() {
+        Tooltip tooltip = new Tooltip();
+        Span other = new Span("other");
+        tooltip.add(other);
+        tooltip.setContentProvider(() -> new Span("content"));
+        setHidden(tooltip, false);
+        Assert.assertEquals(2, tooltip.getChildren().count());
+
+        tooltip.setContentProvider(null);
+        setHidden(tooltip, true);
+        setHidden(tooltip, false);
+        Assert.assertEquals(1, tooltip.getChildren().count());
+        Assert.assertSame(other, tooltip.getChildren().findFirst().get());
+    }
+
+    @Test
+    public void hoverIntent_contentCreatedBeforeOpening() {
+        AtomicInteger calls = new AtomicInteger();
+        Tooltip tooltip = new Tooltip();
+        tooltip.setHoverIntentDelay(150);
+        Assert.assertNull(tooltip.getElement().getAttribute("hover-intent-delay"));
+
+        tooltip.setContentProvider(() -> {
+            calls.incrementAndGet();
+            return new Span("content");
+        });
+        Assert.assertEquals("150", tooltip.getElement().getAttribute("hover-intent-delay"));
+
+        fireHoverIntent(tooltip);
+        Assert.assertEquals(1, calls.get());
+        Assert.assertEquals(1, tooltip.getChildren().count());
+
+        setHidden(tooltip, false);
+        Assert.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void hoverIntent_syncModeNone_notRequested() {
+        Tooltip tooltip = new Tooltip();
+        tooltip.setContentProvider(() -> new Span("content"));
+        tooltip.setHoverIntentDelay(150);
+        tooltip.setSyncMode(TooltipSyncMode.NONE);
+
+        Assert.assertNull(tooltip.getElement().getAttribute("hover-intent-delay"));
+        fireHoverIntent(tooltip);
+        Assert.assertEquals(0, tooltip.getChildren().count());
+    }
+
+    @Test
+    public void attachToComponent_manyTooltips_singleInvocation() {
+        MockUI ui = new MockUI();
+        for (int i = 0; i < 500; i++) {
+            Span target = new Span("target " + i);
+            ui.add(target, new Tooltip(target));
+        }
+
+        List<PendingJavaScriptInvocation> invocations = ui.dumpPendingJavaScriptInvocations();
+        Assert.assertEquals(1, invocations.size());
+        Assert.assertEquals(1000, invocations.get(0).getInvocation().getParameters().size());
+    }
+
+    @Test
+    public void attachToComponent_open_singleInvocation() {
+        MockUI ui = new MockUI();
+        Span target = new Span("target");
+        Tooltip tooltip = new Tooltip(target);
+        ui.add(target, tooltip);
+        tooltip.open();
+
+        List<PendingJavaScriptInvocation> invocations = ui.dumpPendingJavaScriptInvocations();
+        Assert.assertEquals(1, invocations.size());
+        Assert.assertEquals("window.Vaadin.Flow.vcfTooltipConnector.load();"
+                + "window.Vaadin.Flow.vcfTooltipConnector.update([$0,$1],[],[$2]);",
+                invocations.get(0).getInvocation().getExpression());
+    }
+
+    @Test
+    public void attach_manyTooltips_loadRequestedOncePerUI() {
+        MockUI ui = new MockUI();
+        ui.add(new Tooltip(), new Tooltip());
+
+        List<PendingJavaScriptInvocation> invocations = ui.dumpPendingJavaScriptInvocations();
+        Assert.assertEquals(1, invocations.size());
+        Assert.assertEquals("window.Vaadin.Flow.vcfTooltipConnector.load();",
+                invocations.get(0).getInvocation().getExpression());
+
+        ui.add(new Tooltip());
+        Assert.assertTrue(ui.dumpPendingJavaScriptInvocations().isEmpty());
+    }
+
+    @Test
+    public void openClose_manyTimes_onlyFinalStatesSent() {
+        MockUI ui = new MockUI();
+        Tooltip[] tooltips = new Tooltip[10];
+        for (int i = 0; i < tooltips.length; i++) {
+            tooltips[i] = new Tooltip();
+            ui.add(tooltips[i]);
+        }
+        ui.dumpPendingJavaScriptInvocations();
+
+        for (int round = 0; round < 5; round++) {
+            for (Tooltip tooltip : tooltips) {
+                tooltip.close();
+            }
+            tooltips[round].open();
+        }
+
+        List<PendingJavaScriptInvocation> invocations = ui.dumpPendingJavaScriptInvocations();
+        Assert.assertEquals(1, invocations.size());
+        Assert.assertEquals(10, invocations.get(0).getInvocation().getParameters().size());
+        Assert.assertEquals("window.Vaadin.Flow.vcfTooltipConnector.update([],[$0,$1,$2,$3,$4,$5,$6,$7,$8],[$9]);",
+                invocations.get(0).getInvocation().getExpression());
+        Assert.assertSame(tooltips[4].getElement(), invocations.get(0).getInvocation().getParameters().get(9));
+    }
+
+    @Test
+    public void setText_textNodeWithoutComponents() {
+        Span target = new Span("target");
+        Tooltip tooltip = new Tooltip(target, "text");
+
+        Assert.assertEquals("text", tooltip.getText());
+        Assert.assertEquals(0, tooltip.getChildren().count());
+        Assert.assertEquals(1, tooltip.getElement().getChildCount());
+        Assert.assertTrue(tooltip.getElement().getChild(0).isTextNode());
+
+        tooltip.setText("changed");
+        Assert.assertEquals("changed", tooltip.getText());
+        Assert.assertEquals(1, tooltip.getElement().getChildCount());
+    }
+
+    @Test
+    public void setText_smallerThanParagraph() throws IOException {
+        Tooltip textTooltip = new Tooltip();
+        textTooltip.setText("This is an example of how to use it");
+        Tooltip paragraphTooltip = new Tooltip();
+        paragraphTooltip.add(new Paragraph("This is an example of how to use it"));
+
+        Assert.assertTrue(serializedSize(textTooltip) < serializedSize(paragraphTooltip));
+    }
+
+    @Test
+    public void setTemplateContent_templateSentOncePerUI() {
+        MockUI ui = new MockUI();
+        TooltipTemplate<String> template = TooltipTemplate.<String>of("<b>[[item.name]]</b>")
+                .withProperty("name", name -> name);
+        Tooltip first = new Tooltip();
+        Tooltip second = new Tooltip();
+        ui.add(first, second);
+        ui.dumpPendingJavaScriptInvocations();
+
+        first.setTemplateContent(template, "first");
+        second.setTemplateContent(template, "second");
+        List<PendingJavaScriptInvocation> invocations = ui.dumpPendingJavaScriptInvocations();
+        Assert.assertEquals(1, invocations.size());
+        Assert.assertEquals("window.Vaadin.Flow.vcfTooltipConnector.renderTemplates([$0,$1],$2,[$3,$4]);",
+                invocations.get(0).getInvocation().getExpression());
+        Assert.assertEquals("{\"name\":\"first\"}",
+                ((JsonObject) first.getElement().getChild(0).getPropertyRaw("model")).toJson());
+
+        first.setTemplateContent(template, "again");
+        invocations = ui.dumpPendingJavaScriptInvocations();
+        Assert.assertEquals("window.Vaadin.Flow.vcfTooltipConnector.renderTemplates([],$0,[$1]);",
+                invocations.get(0).getInvocation().getExpression());
+        Assert.assertEquals(1, first.getElement().getChildCount());
+    }
+
+    @Test
+    public void templatesWithSameMarkup_sameId() {
+        String html = "<b>[[item.name]]</b>";
+        Assert.assertEquals(TooltipTemplate.of(html).getId(), TooltipTemplate.of(html).getId());
+        Assert.assertEquals(12, TooltipTemplate.of(html).getId().length());
+        Assert.assertNotEquals(TooltipTemplate.of(html).getId(), TooltipTemplate.of("<i>[[item.name]]</i>").getId());
+    }
+
+    @Test
+    public void createModel_longsSentAsStrings() {
+        TooltipTemplate<Long> template = TooltipTemplate.<Long>of("[[item.id]] [[item.digits]]")
+                .withProperty("id", id -> id)
+                .withProperty("digits", id -> String.valueOf(id).length());
+
+        JsonObject model = template.createModel(9007199254740993L);
+        Assert.assertEquals("9007199254740993", model.getString("id"));
+        Assert.assertEquals(16, model.getNumber("digits"), 0);
+    }
+
+    @Test
+    public void setTemplateContent_smallerThanComponents() throws IOException {
+        TooltipTemplate<String[]> template = TooltipTemplate
+                .<String[]>of("<h5>[[item.title]]</h5><p>[[item.first]]</p><p>[[item.second]]</p>")
+                .withProperty("title", row -> row[0])
+                .withProperty("first", row -> row[1])
+                .withProperty("second", row -> row[2]);
+        // The template is shared, so it is serialized only once with the tooltips
+        ArrayList<Tooltip> templateTooltips = new ArrayList<>();
+        ArrayList<Tooltip> componentTooltips = new ArrayList<>();
+        ArrayList<Tooltip> emptyTooltips = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String[] row = { "Title " + i, "First row " + i, "Second row " + i };
+            Tooltip templateTooltip = new Tooltip();
+            templateTooltip.setTemplateContent(template, row);
+            templateTooltips.add(templateTooltip);
+            Tooltip componentTooltip = new Tooltip();
+            componentTooltip.add(new H5(row[0]), new Paragraph(row[1]), new Paragraph(row[2]));
+            componentTooltips.add(componentTooltip);
+            emptyTooltips.add(new Tooltip());
+        }
+
+        int emptySize = serializedSize(emptyTooltips);
+        Assert.assertTrue(serializedSize(templateTooltips) - emptySize < (serializedSize(componentTooltips) - emptySize) / 2);
+    }
+
+    @Test
+    public void asyncContentProvider_placeholderUntilCompleted() {
+        MockUI ui = new MockUI();
+        Tooltip tooltip = new Tooltip();
+        ui.add(tooltip);
+        CompletableFuture<Span> future = new CompletableFuture<>();
+        tooltip.setAsyncContentProvider(executor -> future);
+
+        setHidden(tooltip, false);
+        Assert.assertEquals(Tooltip.DEFAULT_ASYNC_CONTENT_PLACEHOLDER, tooltip.getElement().getTextRecursively());
+
+        setHidden(tooltip, true);
+        Assert.assertTrue(future.isCancelled());
+        Assert.assertEquals(0, tooltip.getElement().getChildCount());
+    }
+
+    @Test
+    public void asyncContentProvider_completed_contentAdded() {
+        MockUI ui = new MockUI();
+        Tooltip tooltip = new Tooltip();
+        ui.add(tooltip);
+        tooltip.setAsyncContentProvider(executor -> CompletableFuture.completedFuture(new Span("loaded")));
+
+        setHidden(tooltip, false);
+
+        Assert.assertEquals("loaded", tooltip.getElement().getTextRecursively());
+        Assert.assertEquals(1, tooltip.getChildren().count());
+    }
+
+    @Test
+    public void syncMode_eager_hiddenSynchronizedWithoutListeners() {
+        Tooltip tooltip = new Tooltip();
+
+        Assert.assertTrue(isHiddenSynchronized(tooltip));
+    }
+
+    @Test
+    public void syncMode_onDemand_hiddenSynchronizedOnlyWithListeners() {
+        Tooltip tooltip = new Tooltip();
+        tooltip.setSyncMode(TooltipSyncMode.ON_DEMAND);
+        Assert.assertFalse(isHiddenSynchronized(tooltip));
+
+        Registration registration = tooltip.addOpenedChangeListener(event -> {
+        });
+        Assert.assertTrue(isHiddenSynchronized(tooltip));
+
+        tooltip.setSyncDebounceTimeout(300);
+        Assert.assertTrue(isHiddenSynchronized(tooltip));
+
+        registration.remove();
+        Assert.assertFalse(isHiddenSynchronized(tooltip));
+
+        tooltip.setSyncDebounceTimeout(0);
+        tooltip.setContentProvider(() -> new Span("content"));
+        Assert.assertTrue(isHiddenSynchronized(tooltip));
+
+        tooltip.setContentProvider(null);
+        Assert.assertFalse(isHiddenSynchronized(tooltip));
+    }
+
+    @Test
+    public void syncMode_none_listenerNotCalled() {
+        List<Boolean> events = new ArrayList<>();
+        Tooltip tooltip = new Tooltip();
+        tooltip.setSyncMode(TooltipSyncMode.NONE);
+        tooltip.addOpenedChangeListener(event -> events.add(event.isOpened()));
+
+        Assert.assertFalse(isHiddenSynchronized(tooltip));
+        setHidden(tooltip, false);
+        Assert.assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void addOpenedChangeListener_openAndClose_eventsFired() {
+        List<Boolean> events = new ArrayList<>();
+        Tooltip tooltip = new Tooltip();
+        tooltip.addOpenedChangeListener(event -> events.add(event.isOpened()));
+
+        setHidden(tooltip, false);
+        setHidden(tooltip, true);
+
+        Assert.assertEquals(Arrays.asList(true, false), events);
+    }
+
+    private static int serializedSize(Serializable object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.size();
+    }
+
+    @Test
+    public void newTooltip_serializedSizeWithinBudget() throws IOException {
+        int emptySize = serializedSize(new Tooltip());
+        Assert.assertTrue("Serialized " + emptySize + " bytes", emptySize < 6000);
+
+        Tooltip textTooltip = new Tooltip();
+        textTooltip.setText("Tooltip text");
+        int textSize = serializedSize(textTooltip);
+        Assert.assertTrue("Serialized " + textSize + " bytes", textSize < 7000);
+    }
+
+    @Test
+    public void newTooltip_allocatedBytesWithinBudget() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        long threadId = Thread.currentThread().getId();
+        // The allocated bytes are an upper bound of the retained heap
+        Tooltip[] tooltips = new Tooltip[1000];
+        long allocatedBytes = 0;
+        for (int round = 0; round < 3; round++) {
+            long before = allocations.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < tooltips.length; i++) {
+                tooltips[i] = new Tooltip();
+            }
+            allocatedBytes = allocations.getThreadAllocatedBytes(threadId) - before;
+        }
+        Assert.assertTrue("Allocated " + allocatedBytes / tooltips.length + " bytes per tooltip",
+                allocatedBytes / tooltips.length < 12000);
+    }
+
+    @Test
+    public void instrumentation_operationsReported() {
+        List<String> operations = new ArrayList<>();
+        Tooltip.setInstrumentation(new TooltipInstrumentation() {
+            @Override
+            public void tooltipAttached(UI ui, int liveTooltips) {
+                operations.add("attached " + liveTooltips);
+            }
+
+            @Override
+            public void tooltipDetached(UI ui, int liveTooltips) {
+                operations.add("detached " + liveTooltips);
+            }
+
+            @Override
+            public void openedChanged(Tooltip tooltip, boolean opened) {
+                operations.add("opened " + opened);
+            }
+
+            @Override
+            public void batchSent(UI ui, int bindings, int hides, int shows) {
+                operations.add("batch " + bindings + " " + hides + " " + shows);
+            }
+
+            @Override
+            public void contentCreated(Tooltip tooltip, long durationNanos, boolean async) {
+                operations.add("content " + async);
+            }
+        });
+        try {
+            MockUI ui = new MockUI();
+            Span target = new Span();
+            Tooltip first = new Tooltip(target);
+            Tooltip second = new Tooltip();
+            second.setContentProvider(() -> new Span("content"));
+            ui.add(target, first, second);
+            first.open();
+            ui.dumpPendingJavaScriptInvocations();
+            setHidden(first, false);
+            setHidden(second, false);
+            ui.remove(first);
+
+            Assert.assertEquals(Arrays.asList("attached 1", "attached 2", "batch 1 0 1",
+                    "opened true", "content false", "opened true", "detached 1"), operations);
+        } finally {
+            Tooltip.setInstrumentation(null);
+        }
+    }
+
+    @Test
+    public void instrumentationSetLater_liveTooltipsCounted() {
+        MockUI ui = new MockUI();
+        Tooltip first = new Tooltip();
+        Tooltip second = new Tooltip();
+        ui.add(first, second);
+
+        List<String> operations = new ArrayList<>();
+        Tooltip.setInstrumentation(new TooltipInstrumentation() {
+            @Override
+            public void tooltipAttached(UI ui, int liveTooltips) {
+                operations.add("attached " + liveTooltips);
+            }
+
+            @Override
+            public void tooltipDetached(UI ui, int liveTooltips) {
+                operations.add("detached " + liveTooltips);
+            }
+        });
+        try {
+            ui.remove(first);
+            ui.add(first);
+        } finally {
+            Tooltip.setInstrumentation(null);
+        }
+
+        Assert.assertEquals(Arrays.asList("detached 1", "attached 2"), operations);
+    }
+
+    @Test
+    public void instrumentationRemoved_openedChangeNoLongerReported() {
+        List<Boolean> opened = new ArrayList<>();
+        Tooltip.setInstrumentation(new TooltipInstrumentation() {
+            @Override
+            public void openedChanged(Tooltip tooltip, boolean value) {
+                opened.add(value);
+            }
+        });
+        Tooltip tooltip;
+        try {
+            tooltip = new Tooltip();
+            setHidden(tooltip, false);
+        } finally {
+            Tooltip.setInstrumentation(null);
+        }
+        setHidden(tooltip, true);
+        setHidden(tooltip, false);
+
+        Assert.assertEquals(Arrays.asList(true), opened);
+        Assert.assertTrue(isHiddenSynchronized(tooltip));
+    }
+
+    private static boolean isHiddenSynchronized(Tooltip tooltip) {
+        // Only checks whether the client may update the property, the
+        // returned update is not run
+        try {
+            tooltip.getElement().getNode().getFeature(ElementPropertyMap.class)
+                    .deferredUpdateFromClient("hidden", false);
+            return true;
+        } catch (PropertyChangeDeniedException e) {
+            return false;
+        }
+    }
+
+    private static void fireHoverIntent(Tooltip tooltip) {
+        tooltip.getElement().getNode().getFeature(ElementListenerMap.class)
+                .fireEvent(new DomEvent(tooltip.getElement(), "vcf-tooltip-hover-intent", Json.createObject()));
+    }
+
+    private static void setHidden(Tooltip tooltip, boolean hidden) {
+        tooltip.getElement().setProperty("hidden", hidden);
+    }
+}
@@ -0,0 +1,103 @@
+package com.vaadin.componentfactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.html.Span;
+
+public class TooltipUpdaterTest {
+
+    @Test
+    public void burstOfChanges_appliedInOneAccess() throws InterruptedException {
+        MockUI ui = new MockUI();
+        Tooltip tooltip = new Tooltip();
+        ui.add(tooltip);
+        TooltipUpdater updater = TooltipUpdater.get(ui);
+        Assert.assertSame(updater, TooltipUpdater.get(ui));
+
+        for (int i = 0; i < 100; i++) {
+            updater.setText(tooltip, "status " + i);
+            updater.open(tooltip);
+            updater.close(tooltip);
+        }
+        updater.update(tooltip, t -> t.add(new Span("details")));
+        awaitAccessCount(ui, 1);
+
+        Assert.assertEquals(1, ui.getAccessCount());
+        Assert.assertEquals("status 99", tooltip.getElement().getChild(0).getText());
+        Assert.assertEquals(2, tooltip.getElement().getChildCount());
+    }
+
+    @Test
+    public void changesFromManyThreads_fewAccesses() throws Exception {
+        MockUI ui = new MockUI();
+        List<Tooltip> tooltips = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Tooltip tooltip = new Tooltip();
+            ui.add(tooltip);
+            tooltips.add(tooltip);
+        }
+        TooltipUpdater updater = TooltipUpdater.get(ui);
+        updater.setUpdateInterval(50);
+
+        ExecutorService executor = Executors.newFixedThreadPool(tooltips.size());
+        try {
+            List<Future<?>> jobs = new ArrayList<>();
+            for (Tooltip tooltip : tooltips) {
+                jobs.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        updater.setText(tooltip, "status " + i);
+                    }
+                }));
+            }
+            for (Future<?> job : jobs) {
+                job.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        for (Tooltip tooltip : tooltips) {
+            awaitText(tooltip, "status 999");
+        }
+
+        Assert.assertTrue(ui.getAccessCount() < 100);
+    }
+
+    @Test
+    public void zeroInterval_appliedRightAway() {
+        MockUI ui = new MockUI();
+        Tooltip tooltip = new Tooltip();
+        TooltipUpdater updater = TooltipUpdater.get(ui);
+        updater.setUpdateInterval(0);
+
+        updater.setText(tooltip, "now");
+
+        Assert.assertEquals(1, ui.getAccessCount());
+        Assert.assertEquals("now", tooltip.getElement().getChild(0).getText());
+    }
+
+    private static void awaitAccessCount(MockUI ui, int count) throws InterruptedException {
+        for (int i = 0; i < 500 && ui.getAccessCount() < count; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void awaitText(Tooltip tooltip, String text) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            synchronized (tooltip.getUI().get()) {
+                if (tooltip.getElement().getChildCount() > 0
+                        && text.equals(tooltip.getElement().getChild(0).getText())) {
+                    return;
+                }
+            }
+            Thread.sleep(10);
+        }
+        Assert.fail("The text was not updated");
+    }
+}
@@ -0,0 +1,49 @@
+package com.vaadin.componentfactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.html.Span;
+
+public class TooltipsTest {
+
+    @Test
+    public void setText_manyTargets_attributesAndSingleHost() {
+        MockUI ui = new MockUI();
+        for (int i = 0; i < 100; i++) {
+            Span target = new Span("target " + i);
+            ui.add(target);
+            Tooltips.setText(target, "hint " + i);
+            Assert.assertEquals("hint " + i, Tooltips.getText(target));
+        }
+
+        Assert.assertEquals(1, ui.getChildren().filter(Tooltip.class::isInstance).count());
+        // Only loading the web component, nothing per target
+        Assert.assertEquals(1, ui.dumpPendingJavaScriptInvocations().size());
+    }
+
+    @Test
+    public void setText_positionAndAlignment_onlyNonDefaultsWritten() {
+        Span target = new Span();
+        Tooltips.setText(target, "hint", TooltipPosition.RIGHT, TooltipAlignment.CENTER);
+        Assert.assertEquals("right", target.getElement().getAttribute(Tooltips.POSITION_ATTRIBUTE));
+        Assert.assertFalse(target.getElement().hasAttribute(Tooltips.ALIGNMENT_ATTRIBUTE));
+
+        Tooltips.setText(target, null);
+        Assert.assertNull(Tooltips.getText(target));
+        Assert.assertFalse(target.getElement().hasAttribute(Tooltips.POSITION_ATTRIBUTE));
+    }
+
+    @Test
+    public void setText_detachedTarget_hostAddedOnAttach() {
+        MockUI ui = new MockUI();
+        Span target = new Span();
+        Tooltips.setText(target, "hint");
+        Assert.assertEquals(0, ui.getChildren().count());
+
+        ui.add(target);
+        Tooltip host = (Tooltip) ui.getChildren().filter(Tooltip.class::isInstance).findFirst().get();
+        Assert.assertTrue(host.isManualMode());
+        Assert.assertTrue(host.getElement().hasAttribute(Tooltips.HOST_ATTRIBUTE));
+    }
+}